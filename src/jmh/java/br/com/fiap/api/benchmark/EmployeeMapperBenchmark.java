@@ -0,0 +1,53 @@
+package br.com.fiap.api.benchmark;
+
+import br.com.fiap.api.dto.WebfluxDto;
+import br.com.fiap.api.entity.Webflux;
+import br.com.fiap.api.mapper.EmployeeMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * conversões entre Webflux e WebfluxDto feitas em toda requisição de /api/webflux.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeMapperBenchmark {
+
+    private Webflux webflux;
+    private WebfluxDto webfluxDto;
+
+    @Setup
+    public void setUp() {
+        var timestamp = LocalDateTime.now();
+        webflux = new Webflux(UUID.randomUUID().toString(), "Receita de pão caseiro",
+                "como fazer pão em casa", "https://videos.exemplo.com/receita-de-pao",
+                timestamp, timestamp, timestamp, 42);
+        webfluxDto = EmployeeMapper.mapToEmployeeDto(webflux);
+    }
+
+    @Benchmark
+    public WebfluxDto mapToEmployeeDto() {
+        return EmployeeMapper.mapToEmployeeDto(webflux);
+    }
+
+    @Benchmark
+    public Webflux mapToEmployee() {
+        return EmployeeMapper.mapToEmployee(webfluxDto);
+    }
+}
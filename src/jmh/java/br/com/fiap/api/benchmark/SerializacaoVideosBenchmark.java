@@ -0,0 +1,100 @@
+package br.com.fiap.api.benchmark;
+
+import br.com.fiap.api.model.Videos;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * custo do Jackson para o que os endpoints de /videos devolvem: um Videos, com as três
+ * datas no formato do @JsonFormat, e a Page da listagem. O ObjectMapper é montado como o
+ * do Spring MVC.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.argumentos="SerializacaoVideosBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoVideosBenchmark {
+
+    @Param({"10", "100"})
+    private int tamanhoPagina;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter escritorVideo;
+    private Videos video;
+    private byte[] videoSerializado;
+    private Page<Videos> pagina;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        escritorVideo = objectMapper.writerFor(Videos.class);
+        video = video();
+        videoSerializado = objectMapper.writeValueAsBytes(video);
+        var videos = IntStream.range(0, tamanhoPagina).mapToObj(i -> video()).toList();
+        pagina = new PageImpl<>(videos,
+                PageRequest.of(0, tamanhoPagina, Sort.by("dataPublicacao").descending()), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serializarVideo() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(video);
+    }
+
+    @Benchmark
+    public byte[] serializarVideo_ComWriterReutilizado() throws JsonProcessingException {
+        return escritorVideo.writeValueAsBytes(video);
+    }
+
+    @Benchmark
+    public Videos desserializarVideo() throws IOException {
+        return objectMapper.readValue(videoSerializado, Videos.class);
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    private static Videos video() {
+        var timestamp = LocalDateTime.now();
+        return Videos.builder()
+                .id(UUID.randomUUID())
+                .titulo("Receita de pão caseiro")
+                .descricao("como fazer pão em casa com poucos ingredientes")
+                .url("https://videos.exemplo.com/receita-de-pao")
+                .dataPublicacao(timestamp)
+                .dataCriacao(timestamp)
+                .dataAlteracao(timestamp)
+                .gostei(42)
+                .build();
+    }
+}
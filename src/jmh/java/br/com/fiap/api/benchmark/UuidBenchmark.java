@@ -0,0 +1,63 @@
+package br.com.fiap.api.benchmark;
+
+import br.com.fiap.api.utils.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * leitura do id de path feita pelo VideosController com UUID.fromString, inclusive o
+ * caminho do id inválido, que custa a criação de uma IllegalArgumentException; e a
+ * geração das chaves novas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidBenchmark {
+
+    private String idValido;
+    private String idInvalido;
+
+    @Setup
+    public void setUp() {
+        idValido = UUID.randomUUID().toString();
+        idInvalido = "video-" + idValido.substring(0, 8);
+    }
+
+    @Benchmark
+    public UUID fromString() {
+        return UUID.fromString(idValido);
+    }
+
+    @Benchmark
+    public Object fromString_QuandoIdInvalido() {
+        try {
+            return UUID.fromString(idInvalido);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public UUID gerarUuidV4() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID gerarUuidV7() {
+        return UuidV7.gerar();
+    }
+}
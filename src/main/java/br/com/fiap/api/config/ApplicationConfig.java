@@ -1,12 +1,26 @@
-
 package br.com.fiap.api.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.filter.CharacterEncodingFilter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
 
 @Configuration
-public class ApplicationConfig {
+@EnableCaching
+@EnableScheduling
+public class ApplicationConfig implements WebMvcConfigurer {
+
+  private final Duration tempoLimiteExportacao;
+
+  public ApplicationConfig(@Value("${videos.exportacao.tempo-limite:30m}") Duration tempoLimiteExportacao) {
+    this.tempoLimiteExportacao = tempoLimiteExportacao;
+  }
 
   @Bean
   public CharacterEncodingFilter characterEncodingFilter() {
@@ -15,4 +29,9 @@ public class ApplicationConfig {
     filter.setForceEncoding(true);
     return filter;
   }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.registerCallableInterceptors(new TempoLimiteExportacao(tempoLimiteExportacao));
+  }
 }
@@ -0,0 +1,39 @@
+package br.com.fiap.api.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * o tempo total de cada rota vem do http.server.requests do Spring; aqui entram o
+ * tempo dos serviços (@Timed) e o da serialização das respostas JSON, para separar
+ * banco, serviço e escrita do corpo.
+ */
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+
+  public MetricasConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry registry) {
+    return new TimedAspect(registry);
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.replaceAll(converter -> converter instanceof MappingJackson2HttpMessageConverter jackson
+        ? new SerializacaoMedida(jackson.getObjectMapper(), meterRegistry.getObject())
+        : converter);
+  }
+}
@@ -0,0 +1,36 @@
+package br.com.fiap.api.config;
+
+import br.com.fiap.api.entity.Webflux;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import reactor.core.publisher.Flux;
+
+/**
+ * garante no Mongo os índices declarados em {@link Webflux}. createIndexes é idempotente,
+ * então rodar a cada subida não recria nada; a criação é assíncrona e uma falha (por
+ * exemplo, Mongo fora do ar) só é registrada no log, sem impedir a aplicação de subir.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class MongoIndexConfig {
+
+  private final ReactiveMongoTemplate mongoTemplate;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void ensureIndexes() {
+    var resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+    var indexOps = mongoTemplate.indexOps(Webflux.class);
+    Flux.<IndexDefinition>fromIterable(resolver.resolveIndexFor(Webflux.class))
+        .concatMap(indexOps::ensureIndex)
+        .subscribe(
+            index -> log.info("índice {} garantido na coleção videos", index),
+            error -> log.warn("não foi possível garantir os índices da coleção videos", error));
+  }
+}
@@ -0,0 +1,52 @@
+package br.com.fiap.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * conversor JSON que mede, por rota, o tempo de escrever o corpo da resposta.
+ * Inclui a escrita no buffer da resposta, que só bloqueia em corpos maiores que ele.
+ */
+public class SerializacaoMedida extends MappingJackson2HttpMessageConverter {
+
+  public static final String METRICA = "api.serializacao";
+
+  private final MeterRegistry meterRegistry;
+
+  public SerializacaoMedida(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+    super(objectMapper);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+    var amostra = Timer.start(meterRegistry);
+    try {
+      super.writeInternal(object, type, outputMessage);
+    } finally {
+      amostra.stop(Timer.builder(METRICA)
+          .description("tempo de serialização do corpo das respostas JSON")
+          .tag("uri", rota())
+          .publishPercentileHistogram()
+          .register(meterRegistry));
+    }
+  }
+
+  // o padrão da rota, como no http.server.requests, para não criar uma série por id
+  private static String rota() {
+    var atributos = RequestContextHolder.getRequestAttributes();
+    var padrao = atributos == null
+        ? null
+        : atributos.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    return padrao == null ? "UNKNOWN" : padrao.toString();
+  }
+}
@@ -0,0 +1,41 @@
+package br.com.fiap.api.config;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * a exportação em NDJSON pode levar minutos em catálogos grandes. Só as requisições
+ * marcadas pelo controller ganham o tempo limite longo; as demais rotas assíncronas
+ * ficam com o padrão do Spring.
+ */
+public class TempoLimiteExportacao implements CallableProcessingInterceptor {
+
+  public static final String ATRIBUTO = TempoLimiteExportacao.class.getName();
+
+  private final Duration tempoLimite;
+
+  public TempoLimiteExportacao(Duration tempoLimite) {
+    this.tempoLimite = tempoLimite;
+  }
+
+  public static void marcar(WebRequest request) {
+    request.setAttribute(ATRIBUTO, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+  }
+
+  /**
+   * roda antes de o processamento assíncrono começar, quando o tempo limite ainda pode mudar.
+   */
+  @Override
+  public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+    if (request instanceof AsyncWebRequest asyncRequest
+        && request.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST) != null) {
+      asyncRequest.setTimeout(tempoLimite.toMillis());
+    }
+  }
+}
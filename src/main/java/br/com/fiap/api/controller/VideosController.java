@@ -1,28 +1,51 @@
 
 package br.com.fiap.api.controller;
 
+import br.com.fiap.api.config.TempoLimiteExportacao;
+import br.com.fiap.api.dto.ErrorResponse;
+import br.com.fiap.api.dto.VideoCursor;
+import br.com.fiap.api.dto.VideoCursorResponse;
+import br.com.fiap.api.dto.VideoListaResponse;
+import br.com.fiap.api.dto.VideoLoteResponse;
+import br.com.fiap.api.dto.VideoPesquisaResponse;
+import br.com.fiap.api.dto.VideoRequest;
+import br.com.fiap.api.dto.VideoSugestaoResponse;
 import br.com.fiap.api.exception.MensagemNotFoundException;
+import br.com.fiap.api.exception.VersaoConflitanteException;
 import br.com.fiap.api.model.Videos;
 import br.com.fiap.api.repository.VideoRepository;
+import br.com.fiap.api.search.AutocompletarTitulos;
 import br.com.fiap.api.service.VideosService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -31,6 +54,22 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class VideosController {
 
+    private static final int TAMANHO_MAXIMO_CURSOR = 100;
+    private static final int LIMITE_MAXIMO_PESQUISA = 100;
+    private static final int LIMITE_MAXIMO_PUBLICADOS = 1000;
+    private static final int LIMITE_MAXIMO_IDS = 100;
+    private static final int LIMITE_MAXIMO_EM_ALTA = 100;
+    private static final Set<String> CAMPOS_ORDENACAO = Set.of("dataPublicacao", "gostei", "titulo");
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+    private static final Map<String, String> CAMPOS_CORRECAO = Map.of(
+            "titulo", "título não pode estar vazio",
+            "descricao", "descrição não pode estar vazio",
+            "url", "url não pode estar vazio");
+    // o cliente pode guardar a resposta, mas revalida com If-None-Match antes de usar
+    private static final CacheControl REVALIDAR = CacheControl.noCache();
+    // a versão do catálogo recomeça a cada inicialização
+    private static final String INSTANCIA = Long.toString(System.currentTimeMillis(), 36);
+
     private final VideosService videosService;
     @Autowired
     private VideoRepository repository;
@@ -44,6 +83,16 @@ public class VideosController {
         return new ResponseEntity<>(videoCriado, HttpStatus.CREATED);
     }
 
+    @PostMapping(
+            value = "/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<VideoLoteResponse>> criarVideos(@RequestBody List<Videos> videos) {
+        log.info("requisição para criar videos em lote foi efetuada: Quantidade={}", videos.size());
+        var resultados = videosService.criarVideos(videos);
+        return new ResponseEntity<>(resultados, HttpStatus.OK);
+    }
+
     @GetMapping(
             value = "/{id}",
             produces = MediaType.APPLICATION_JSON_VALUE)
@@ -52,7 +101,11 @@ public class VideosController {
         try {
             var uuid = UUID.fromString(id);
             var videoEncontrada = videosService.buscarVideo(uuid);
-            return new ResponseEntity<>(videoEncontrada, HttpStatus.OK);
+            // com If-None-Match igual ao ETag o Spring responde 304 sem serializar o video
+            return ResponseEntity.ok()
+                    .eTag(etag(videoEncontrada))
+                    .cacheControl(REVALIDAR)
+                    .body(videoEncontrada);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("ID inválido");
         } catch (MensagemNotFoundException e) {
@@ -60,6 +113,24 @@ public class VideosController {
         }
     }
 
+    @GetMapping(
+            value = "",
+            params = "ids",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> buscarVideos(@RequestParam List<String> ids) {
+        log.info("requisição para buscar videos por ids foi efetuada: Quantidade={}", ids.size());
+        return buscarVideosPorIds(ids);
+    }
+
+    @PostMapping(
+            value = "/lookup",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> buscarVideosLookup(@RequestBody List<String> ids) {
+        log.info("requisição para buscar videos por ids foi efetuada: Quantidade={}", ids.size());
+        return buscarVideosPorIds(ids);
+    }
+
     //    @GetMapping("/titulo/{titulo}")
 //        public ResponseEntity<?> buscarVideoTitulo(@PathVariable String titulo) {
 //        var videoEncontrada = videosService.buscarVideoTitulo(titulo);
@@ -75,32 +146,199 @@ public class VideosController {
     @GetMapping(
             value = "",
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Page<Videos>> listarVideos(
+    public ResponseEntity<?> listarVideos(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "dataPublicacao,desc") String sort) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("dataPublicacao").descending());
+            @RequestParam(defaultValue = "dataPublicacao,desc") String sort,
+            WebRequest request) {
         log.info("requisição para listar videos foi efetuada: Página={}, Tamanho={}, Sort={}", page, size, sort);
+        var ordenacao = ordenacao(sort);
+        if (ordenacao.isEmpty()) {
+            return ResponseEntity.badRequest().body("ordenação inválida");
+        }
+        var etag = etagListagem();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDAR).build();
+        }
+        Pageable pageable = PageRequest.of(page, size, ordenacao.get());
         Page<Videos> videos = videosService.listarVideo(pageable);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDAR).body(videos);
+    }
+
+    @GetMapping(
+            value = "/resumo",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> listarResumoVideos(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "dataPublicacao,desc") String sort,
+            WebRequest request) {
+        log.info("requisição para listar resumo dos videos foi efetuada: Página={}, Tamanho={}, Sort={}", page, size, sort);
+        var ordenacao = ordenacao(sort);
+        if (ordenacao.isEmpty()) {
+            return ResponseEntity.badRequest().body("ordenação inválida");
+        }
+        var etag = etagListagem();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDAR).build();
+        }
+        Pageable pageable = PageRequest.of(page, size, ordenacao.get());
+        var videos = videosService.listarResumoVideos(pageable);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDAR).body(videos);
+    }
+
+    @GetMapping(
+            value = "/publicados",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> listarPublicados(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("requisição para listar videos publicados foi efetuada: De={}, Até={}, Limite={}", de, ate, limit);
+        var fim = ate == null ? LocalDateTime.now() : ate;
+        if (de.isAfter(fim)) {
+            return ResponseEntity.badRequest().body("intervalo inválido");
+        }
+        var limite = Math.min(Math.max(limit, 1), LIMITE_MAXIMO_PUBLICADOS);
+        var videos = videosService.listarPublicados(de, fim, limite);
         return new ResponseEntity<>(videos, HttpStatus.OK);
     }
 
+    @GetMapping(
+            value = "/trending",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> listarEmAlta(
+            @RequestParam(value = "window", defaultValue = "1h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("requisição para listar videos em alta foi efetuada: Janela={}, Limite={}", window, limit);
+        try {
+            Duration janela = DurationStyle.detectAndParse(window);
+            var limite = Math.min(Math.max(limit, 1), LIMITE_MAXIMO_EM_ALTA);
+            var videos = videosService.listarEmAlta(janela, limite);
+            return new ResponseEntity<>(videos, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("janela inválida");
+        }
+    }
+
+    @GetMapping(
+            value = "",
+            params = "cursor",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> listarVideosPorCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        log.info("requisição para listar videos por cursor foi efetuada: Tamanho={}", size);
+        try {
+            var posicao = cursor.isBlank() ? null : VideoCursor.decodificar(cursor);
+            var tamanho = Math.min(Math.max(size, 1), TAMANHO_MAXIMO_CURSOR);
+            var videos = videosService.listarVideo(posicao, tamanho);
+            return new ResponseEntity<>(VideoCursorResponse.of(videos), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("cursor inválido");
+        }
+    }
+
+    @GetMapping(
+            value = "/search",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<VideoPesquisaResponse>> pesquisarVideos(
+            @RequestParam("q") String consulta,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("requisição para pesquisar videos foi efetuada: Limite={}", limit);
+        var limite = Math.min(Math.max(limit, 1), LIMITE_MAXIMO_PESQUISA);
+        var resultados = videosService.pesquisarVideos(consulta, limite);
+        return new ResponseEntity<>(resultados, HttpStatus.OK);
+    }
+
+    @GetMapping(
+            value = "/autocomplete",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<VideoSugestaoResponse>> autocompletarTitulo(
+            @RequestParam("prefix") String prefixo,
+            @RequestParam(defaultValue = "5") int limit) {
+        log.info("requisição para autocompletar titulo foi efetuada: Limite={}", limit);
+        var limite = Math.min(Math.max(limit, 1), AutocompletarTitulos.MAXIMO_SUGESTOES);
+        var sugestoes = videosService.autocompletarTitulo(prefixo, limite);
+        return new ResponseEntity<>(sugestoes, HttpStatus.OK);
+    }
+
+    @GetMapping(
+            value = "/exportar",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarVideos(WebRequest request) {
+        log.info("requisição para exportar videos foi efetuada");
+        TempoLimiteExportacao.marcar(request);
+        StreamingResponseBody corpo = videosService::exportarVideos;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
+    }
+
     @PutMapping(
             value = "/{id}",
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> atualizarVideo(
             @PathVariable String id,
-            @RequestBody @Valid Videos videos) {
+            @RequestBody @Valid Videos videos,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("requisição para atualizar videos foi efetuada");
         try {
             var uuid = UUID.fromString(id);
-            var videoAtualizado = videosService.alterarVideo(uuid, videos);
-            return new ResponseEntity<>(videoAtualizado, HttpStatus.OK);
+            Long versaoEsperada = null;
+            if (ifMatch != null && !ifMatch.trim().equals("*")) {
+                var versao = versao(uuid, ifMatch);
+                if (versao.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("video alterado por outra requisição");
+                }
+                versaoEsperada = versao.get();
+            }
+            var videoAtualizado = videosService.alterarVideo(uuid, videos, versaoEsperada);
+            return ResponseEntity.ok().eTag(etag(videoAtualizado)).body(videoAtualizado);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("ID inválido");
         } catch (MensagemNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (VersaoConflitanteException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        }
+    }
+
+    /**
+     * JSON Merge Patch (RFC 7396): só os campos presentes são alterados. Como todos os
+     * campos são obrigatórios, null (remover o campo) é recusado.
+     */
+    @PatchMapping(
+            value = "/{id}",
+            consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> corrigirVideo(
+            @PathVariable String id,
+            @RequestBody Map<String, Object> patch) {
+        log.info("requisição para corrigir video foi efetuada: Campos={}", patch.keySet());
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("ID inválido");
+        }
+        var erros = validarCorrecao(patch);
+        if (!erros.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Validation error", erros));
+        }
+        var alteracoes = VideoRequest.builder()
+                .titulo((String) patch.get("titulo"))
+                .descricao((String) patch.get("descricao"))
+                .url((String) patch.get("url"))
+                .build();
+        try {
+            var videoAtualizado = videosService.corrigirVideo(uuid, alteracoes);
+            return ResponseEntity.ok().eTag(etag(videoAtualizado)).body(videoAtualizado);
+        } catch (MensagemNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (VersaoConflitanteException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         }
     }
 
@@ -131,4 +369,83 @@ public class VideosController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
+
+    private ResponseEntity<?> buscarVideosPorIds(List<String> ids) {
+        if (ids.size() > LIMITE_MAXIMO_IDS) {
+            return ResponseEntity.badRequest().body("no máximo " + LIMITE_MAXIMO_IDS + " ids por requisição");
+        }
+        try {
+            var uuids = ids.stream().map(id -> UUID.fromString(id.trim())).toList();
+            var videos = videosService.buscarVideos(uuids);
+            return new ResponseEntity<>(videos, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("ID inválido");
+        }
+    }
+
+    private static List<String> validarCorrecao(Map<String, Object> patch) {
+        List<String> erros = new ArrayList<>();
+        patch.forEach((campo, valor) -> {
+            if (!CAMPOS_CORRECAO.containsKey(campo)) {
+                erros.add("campo não pode ser alterado: " + campo);
+            } else if (!(valor instanceof String texto) || texto.isEmpty()) {
+                erros.add(CAMPOS_CORRECAO.get(campo));
+            }
+        });
+        Collections.sort(erros);
+        return erros;
+    }
+
+    /**
+     * id, versão e gostei: a versão muda a cada edição, e o gostei entra porque o
+     * descarregamento não altera a versão.
+     */
+    private static String etag(Videos video) {
+        return "\"" + video.getId() + "-" + video.getVersao() + "-" + video.getGostei() + "\"";
+    }
+
+    /**
+     * a versão de um ETag gerado por {@link #etag(Videos)} para o mesmo video. O If-Match
+     * compara só a versão: um gostei recebido depois do GET não é uma edição concorrente.
+     */
+    private static Optional<Long> versao(UUID id, String ifMatch) {
+        var valor = ifMatch.trim();
+        var prefixo = "\"" + id + "-";
+        if (!valor.startsWith(prefixo) || !valor.endsWith("\"")) {
+            return Optional.empty();
+        }
+        var partes = valor.substring(prefixo.length(), valor.length() - 1).split("-");
+        if (partes.length != 2) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(partes[0]));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * cada URL de listagem tem o seu cache no cliente, então a versão do catálogo basta
+     * para saber se a página guardada ainda vale, sem consultar o banco.
+     */
+    private String etagListagem() {
+        return "\"" + INSTANCIA + "-" + videosService.versaoCatalogo() + "\"";
+    }
+
+    /**
+     * "campo" ou "campo,asc|desc", só para os campos de {@link #CAMPOS_ORDENACAO}, com o id
+     * como desempate na mesma direção; cada combinação é atendida por um índice de Videos.
+     */
+    private static Optional<Sort> ordenacao(String sort) {
+        var partes = sort.split(",");
+        var campo = partes[0].trim();
+        if (partes.length > 2 || !CAMPOS_ORDENACAO.contains(campo)) {
+            return Optional.empty();
+        }
+        var direcao = partes.length == 2
+                ? Sort.Direction.fromOptionalString(partes[1].trim())
+                : Optional.of(Sort.Direction.ASC);
+        return direcao.map(sentido -> Sort.by(sentido, campo).and(Sort.by(sentido, "id")));
+    }
 }
@@ -1,19 +1,26 @@
 
 package br.com.fiap.api.controller;
 
+import br.com.fiap.api.dto.WebfluxBulkDto;
 import br.com.fiap.api.dto.WebfluxDto;
 import br.com.fiap.api.service.WebfluxService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("api/webflux")
 @AllArgsConstructor
 public class WebFluxController {
 
+    private static final int LIMITE_MAXIMO = 1000;
+
     private WebfluxService webfluxService;
 
     @PostMapping
@@ -22,14 +29,28 @@ public class WebFluxController {
         return webfluxService.saveWebflux(webfluxDto);
     }
 
+    @PostMapping(value = "bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<WebfluxBulkDto> bulkWebflux(InputStream ndjson){
+        return webfluxService.bulkWebflux(ndjson);
+    }
+
     @GetMapping("{id}")
     public Mono<WebfluxDto> getWebflux(@PathVariable("id") String employeeId){
         return webfluxService.getWebflux(employeeId);
     }
 
     @GetMapping
-    public Flux<WebfluxDto> getAllWebflux(){
-        return webfluxService.getAllEmployees();
+    public Flux<WebfluxDto> getAllWebflux(@RequestParam(required = false) String after,
+                                          @RequestParam(defaultValue = "100") int limit){
+        var limite = Math.min(Math.max(limit, 1), LIMITE_MAXIMO);
+        return webfluxService.getAllEmployees(after, limite);
+    }
+
+    @GetMapping(value = "stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<WebfluxDto> streamAllWebflux(@RequestParam(required = false) String after){
+        return webfluxService.streamAllEmployees(after);
     }
 
     @PutMapping("{id}")
@@ -38,9 +59,18 @@ public class WebFluxController {
         return webfluxService.updateWebflux(webfluxDto, id);
     }
 
+    @PutMapping("{id}/gostei")
+    public Mono<ResponseEntity<WebfluxDto>> likeWebflux(@PathVariable("id") String employeeId){
+        return webfluxService.likeWebflux(employeeId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("{id}")
-    @ResponseStatus(value = HttpStatus.NO_CONTENT)
-    public Mono<Void> deleteWebflux(@PathVariable("id") String employeeId){
-        return webfluxService.deleteWebflux(employeeId);
+    public Mono<ResponseEntity<Void>> deleteWebflux(@PathVariable("id") String employeeId){
+        return webfluxService.deleteWebflux(employeeId)
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package br.com.fiap.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * posição do último video entregue na listagem por cursor. O cliente recebe
+ * apenas o token opaco e o devolve para pedir a próxima página.
+ */
+@Data
+@AllArgsConstructor
+public class VideoCursor {
+
+  private static final String SEPARADOR = "|";
+
+  private LocalDateTime dataPublicacao;
+  private UUID id;
+
+  public String codificar() {
+    var valor = dataPublicacao + SEPARADOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @throws IllegalArgumentException quando o token não foi gerado por {@link #codificar()}
+   */
+  public static VideoCursor decodificar(String token) {
+    try {
+      var valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      var separador = valor.indexOf(SEPARADOR);
+      return new VideoCursor(
+          LocalDateTime.parse(valor.substring(0, separador)),
+          UUID.fromString(valor.substring(separador + 1)));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("cursor inválido", e);
+    }
+  }
+}
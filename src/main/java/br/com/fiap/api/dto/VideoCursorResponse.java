@@ -0,0 +1,33 @@
+package br.com.fiap.api.dto;
+
+import br.com.fiap.api.model.Videos;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@Builder
+@Data
+@AllArgsConstructor
+public class VideoCursorResponse {
+  private List<Videos> content;
+  private int size;
+  private boolean hasNext;
+  private String nextCursor;
+
+  public static VideoCursorResponse of(Slice<Videos> videos) {
+    String proximoCursor = null;
+    if (videos.hasNext() && videos.hasContent()) {
+      var ultimo = videos.getContent().get(videos.getNumberOfElements() - 1);
+      proximoCursor = new VideoCursor(ultimo.getDataPublicacao(), ultimo.getId()).codificar();
+    }
+    return VideoCursorResponse.builder()
+        .content(videos.getContent())
+        .size(videos.getSize())
+        .hasNext(videos.hasNext())
+        .nextCursor(proximoCursor)
+        .build();
+  }
+}
@@ -0,0 +1,19 @@
+package br.com.fiap.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * gostei recebidos pelo video dentro da janela pedida; os dados do video vêm de
+ * GET /videos?ids=.
+ */
+@Builder
+@Data
+@AllArgsConstructor
+public class VideoEmAltaResponse {
+  private UUID id;
+  private long gostei;
+}
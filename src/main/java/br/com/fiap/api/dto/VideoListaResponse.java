@@ -0,0 +1,26 @@
+package br.com.fiap.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * o {@link VideoResponse} com id, dataPublicacao e gostei, montado direto pela
+ * consulta da listagem sem passar por uma entidade gerenciada.
+ */
+@Builder
+@Data
+@AllArgsConstructor
+public class VideoListaResponse {
+  private UUID id;
+  private String titulo;
+  private String descricao;
+  private String url;
+  @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSSS")
+  private LocalDateTime dataPublicacao;
+  private int gostei;
+}
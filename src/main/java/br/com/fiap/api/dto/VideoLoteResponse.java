@@ -0,0 +1,24 @@
+package br.com.fiap.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * resultado de um item do cadastro em lote, na mesma posição em que foi enviado.
+ */
+@Builder
+@Data
+@AllArgsConstructor
+public class VideoLoteResponse {
+
+  public enum Status { CRIADO, INVALIDO, FALHA }
+
+  private int indice;
+  private UUID id;
+  private Status status;
+  private List<String> erros;
+}
@@ -0,0 +1,20 @@
+package br.com.fiap.api.dto;
+
+import br.com.fiap.api.model.Videos;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * videos encontrados na ordem dos ids pedidos e os ids que não existem.
+ */
+@Builder
+@Data
+@AllArgsConstructor
+public class VideoMultiplosResponse {
+  private List<Videos> videos;
+  private List<UUID> naoEncontrados;
+}
@@ -0,0 +1,18 @@
+package br.com.fiap.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Builder
+@Data
+@AllArgsConstructor
+public class VideoPesquisaResponse {
+  private UUID id;
+  private String titulo;
+  private String descricao;
+  private String url;
+  private double score;
+}
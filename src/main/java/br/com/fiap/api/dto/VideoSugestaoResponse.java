@@ -0,0 +1,16 @@
+package br.com.fiap.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Builder
+@Data
+@AllArgsConstructor
+public class VideoSugestaoResponse {
+  private UUID id;
+  private String titulo;
+  private long gostei;
+}
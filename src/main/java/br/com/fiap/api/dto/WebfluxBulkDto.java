@@ -0,0 +1,16 @@
+package br.com.fiap.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+@AllArgsConstructor
+public class WebfluxBulkDto {
+  private long lote;
+  private int documentos;
+  private int inseridos;
+  private int falhas;
+  private long totalInseridos;
+}
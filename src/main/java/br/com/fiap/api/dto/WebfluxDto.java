@@ -21,4 +21,5 @@ public class WebfluxDto {
   private LocalDateTime dataPublicacao;
   private LocalDateTime dataCriacao;
   private LocalDateTime dataAlteracao;
+  private int gostei;
 }
\ No newline at end of file
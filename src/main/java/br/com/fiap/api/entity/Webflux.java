@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -14,6 +16,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(value = "videos")
+@CompoundIndexes({
+        @CompoundIndex(name = "idx_videos_titulo_data_publicacao", def = "{'titulo': 1, 'dataPublicacao': 1}"),
+        @CompoundIndex(name = "idx_videos_data_publicacao", def = "{'dataPublicacao': -1}"),
+        @CompoundIndex(name = "idx_videos_gostei", def = "{'gostei': -1}")
+})
 public class Webflux {
 
     @Id
@@ -24,4 +31,5 @@ public class Webflux {
     private LocalDateTime dataPublicacao;
     private LocalDateTime dataCriacao;
     private LocalDateTime dataAlteracao;
+    private int gostei;
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package br.com.fiap.api.exception;
+
+public class VersaoConflitanteException extends RuntimeException {
+    public VersaoConflitanteException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -9,11 +9,12 @@ public class EmployeeMapper {
         return new WebfluxDto(
                 webflux.getId(),
                 webflux.getTitulo(),
-                webflux.getUrl(),
                 webflux.getDescricao(),
-                webflux.getDataAlteracao(),
+                webflux.getUrl(),
+                webflux.getDataPublicacao(),
                 webflux.getDataCriacao(),
-                webflux.getDataPublicacao()
+                webflux.getDataAlteracao(),
+                webflux.getGostei()
                 );
     }
 
@@ -21,11 +22,12 @@ public class EmployeeMapper {
         return new Webflux(
                 webfluxDto.getId(),
                 webfluxDto.getTitulo(),
+                webfluxDto.getDescricao(),
                 webfluxDto.getUrl(),
-                webfluxDto.getUrl(),
-                webfluxDto.getDataAlteracao(),
+                webfluxDto.getDataPublicacao(),
                 webfluxDto.getDataCriacao(),
-                webfluxDto.getDataPublicacao()
+                webfluxDto.getDataAlteracao(),
+                webfluxDto.getGostei()
         );
     }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package br.com.fiap.api.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,6 +15,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.jackson.Jacksonized;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.GenericGenerator;
 
 import java.time.LocalDateTime;
@@ -22,6 +27,14 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Jacksonized
+// o UPDATE gerado pelo dirty checking leva só as colunas que mudaram
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_videos_data_publicacao_id", columnList = "data_publicacao DESC, id DESC"),
+        @Index(name = "idx_videos_titulo_data_publicacao", columnList = "titulo, data_publicacao"),
+        @Index(name = "idx_videos_gostei_id", columnList = "gostei DESC, id DESC"),
+        @Index(name = "idx_videos_titulo_id", columnList = "titulo, id")
+})
 public class Videos {
 
     @Id
@@ -49,9 +62,16 @@ public class Videos {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSSSS")
     private LocalDateTime dataAlteracao;
 
+    // só é alterado pelo descarregamento do GosteiAcumulador, nunca pelo save da entidade
     @Builder.Default
+    @Column(updatable = false)
     private int gostei = 0;
 
+    // muda a cada edição (PUT e PATCH) e é a base do ETag/If-Match; o gostei não a altera
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     @PrePersist
     public void prePersist() {
         var timestamp = LocalDateTime.now();
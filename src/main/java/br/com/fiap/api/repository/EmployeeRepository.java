@@ -2,8 +2,14 @@ package br.com.fiap.api.repository;
 
 import br.com.fiap.api.entity.Webflux;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
 
 
 public interface EmployeeRepository extends ReactiveCrudRepository<Webflux, String> {
+
+    Flux<Webflux> findAllByOrderByIdAsc(Pageable pageable);
+
+    Flux<Webflux> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
 }
@@ -1,22 +1,86 @@
 package br.com.fiap.api.repository;
 
+import br.com.fiap.api.dto.VideoListaResponse;
 import br.com.fiap.api.model.Videos;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface VideoRepository extends JpaRepository<Videos, UUID> {
 
     @Query("SELECT m FROM Videos m")
     Page<Videos> listarVideos(Pageable pageable);
 
+    @Query(value = "SELECT new br.com.fiap.api.dto.VideoListaResponse("
+            + "v.id, v.titulo, v.descricao, v.url, v.dataPublicacao, v.gostei) FROM Videos v",
+            countQuery = "SELECT COUNT(v) FROM Videos v")
+    Page<VideoListaResponse> listarResumoVideos(Pageable pageable);
+
+    @Query("SELECT new br.com.fiap.api.dto.VideoListaResponse("
+            + "v.id, v.titulo, v.descricao, v.url, v.dataPublicacao, v.gostei) FROM Videos v "
+            + "WHERE v.dataPublicacao BETWEEN :de AND :ate "
+            + "ORDER BY v.dataPublicacao DESC, v.id DESC")
+    List<VideoListaResponse> listarPublicados(LocalDateTime de, LocalDateTime ate, Pageable pageable);
+
+    @Query("SELECT v FROM Videos v ORDER BY v.dataPublicacao DESC, v.id DESC")
+    Slice<Videos> listarVideosPorCursor(Pageable pageable);
+
+    /**
+     * o limite dataPublicacao <= :dataPublicacao é redundante com o OR, mas é ele que
+     * deixa o otimizador começar a leitura do índice já na posição do cursor.
+     */
+    @Query("SELECT v FROM Videos v "
+            + "WHERE v.dataPublicacao <= :dataPublicacao "
+            + "AND (v.dataPublicacao < :dataPublicacao "
+            + "OR (v.dataPublicacao = :dataPublicacao AND v.id < :id)) "
+            + "ORDER BY v.dataPublicacao DESC, v.id DESC")
+    Slice<Videos> listarVideosPorCursor(LocalDateTime dataPublicacao, UUID id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Videos v")
+    Stream<Videos> exportarVideos();
+
     List<Videos> findByTituloAndDataPublicacao(String titulo, LocalDateTime dataPublicacao);
 
+    /**
+     * altera a linha e a devolve já gravada num único comando: a data change delta table
+     * do H2 (FINAL TABLE) faz o papel do UPDATE ... RETURNING. Vazio se o video não existe.
+     */
+    @Transactional
+    @Query(value = "SELECT * FROM FINAL TABLE (UPDATE videos SET descricao = :descricao, url = :url, "
+            + "data_alteracao = :dataAlteracao, versao = versao + 1 WHERE id = :id)", nativeQuery = true)
+    Optional<Videos> alterarVideo(UUID id, String descricao, String url, LocalDateTime dataAlteracao);
+
+    /**
+     * como o anterior, mas só altera se a versão no banco for a informada.
+     */
+    @Transactional
+    @Query(value = "SELECT * FROM FINAL TABLE (UPDATE videos SET descricao = :descricao, url = :url, "
+            + "data_alteracao = :dataAlteracao, versao = versao + 1 WHERE id = :id AND versao = :versao)",
+            nativeQuery = true)
+    Optional<Videos> alterarVideo(UUID id, String descricao, String url, LocalDateTime dataAlteracao, long versao);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Videos v WHERE v.id = :id")
+    int apagarVideo(UUID id);
+
 }
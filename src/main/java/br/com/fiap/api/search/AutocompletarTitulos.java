@@ -0,0 +1,348 @@
+package br.com.fiap.api.search;
+
+import br.com.fiap.api.dto.VideoSugestaoResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * trie compacta (radix) dos títulos normalizados: cada aresta guarda um trecho do
+ * título, então só existem nós onde dois títulos se separam ou onde um termina, e os
+ * filhos de um nó ficam em arrays ordenados pelo primeiro caractere, buscados por
+ * busca binária. Cada nó já guarda os {@value #MAXIMO_SUGESTOES} videos com mais
+ * gostei abaixo dele; uma sugestão custa só a descida pelo prefixo, sem percorrer a
+ * subárvore nem consultar o banco.
+ */
+@Component
+public class AutocompletarTitulos {
+
+    public static final int MAXIMO_SUGESTOES = 10;
+
+    private static final Comparator<Entrada> ORDEM = Comparator.comparingLong(Entrada::gostei).reversed()
+            .thenComparing(Entrada::titulo)
+            .thenComparing(Entrada::id);
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final char[] SEM_LETRAS = new char[0];
+    private static final No[] SEM_FILHOS = new No[0];
+    private static final Entrada[] SEM_ENTRADAS = new Entrada[0];
+
+    private final No raiz = new No("");
+    private final Map<UUID, Entrada> entradas = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void adicionar(UUID id, String titulo, long gostei) {
+        var chave = chave(titulo).strip();
+        var entrada = new Entrada(id, titulo, chave, gostei);
+        lock.writeLock().lock();
+        try {
+            removerEntrada(id);
+            if (chave.isEmpty()) {
+                return;
+            }
+            entradas.put(id, entrada);
+            inserir(entrada);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removerEntrada(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * soma gostei a um video já indexado. Com delta positivo o video só pode subir
+     * nas listas do caminho, então nenhuma delas precisa ser recalculada.
+     */
+    public void somarGostei(UUID id, long delta) {
+        lock.writeLock().lock();
+        try {
+            var anterior = entradas.get(id);
+            if (anterior == null) {
+                return;
+            }
+            if (delta < 0) {
+                adicionar(id, anterior.titulo(), anterior.gostei() + delta);
+                return;
+            }
+            var atual = new Entrada(id, anterior.titulo(), anterior.chave(), anterior.gostei() + delta);
+            entradas.put(id, atual);
+            var caminho = caminho(anterior.chave());
+            for (No no : caminho) {
+                no.melhores = semId(no.melhores, id);
+                no.oferecer(atual);
+            }
+            var ultimo = caminho.get(caminho.size() - 1);
+            ultimo.terminais = comEntrada(semId(ultimo.terminais, id), atual);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<VideoSugestaoResponse> sugerir(String prefixo, int limite) {
+        var chave = chave(prefixo).stripLeading();
+        if (chave.isEmpty() || limite < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            var no = raiz;
+            var posicao = 0;
+            while (posicao < chave.length()) {
+                var filho = no.filho(chave.charAt(posicao));
+                if (filho == null) {
+                    return List.of();
+                }
+                var comum = prefixoComum(filho.rotulo, chave, posicao);
+                // o prefixo pode terminar no meio do trecho da aresta
+                if (comum < filho.rotulo.length() && posicao + comum < chave.length()) {
+                    return List.of();
+                }
+                posicao += comum;
+                no = filho;
+            }
+            return Arrays.stream(no.melhores)
+                    .limit(limite)
+                    .map(entrada -> new VideoSugestaoResponse(entrada.id(), entrada.titulo(), entrada.gostei()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return entradas.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * nós abaixo da raiz, para conferir que a árvore continua compacta.
+     */
+    int nos() {
+        lock.readLock().lock();
+        try {
+            return raiz.contarDescendentes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void inserir(Entrada entrada) {
+        var chave = entrada.chave();
+        var no = raiz;
+        var posicao = 0;
+        while (posicao < chave.length()) {
+            var indice = no.indice(chave.charAt(posicao));
+            if (indice < 0) {
+                var folha = new No(chave.substring(posicao));
+                folha.oferecer(entrada);
+                no.inserirFilho(-indice - 1, folha);
+                no = folha;
+                break;
+            }
+            var filho = no.filhos[indice];
+            var comum = prefixoComum(filho.rotulo, chave, posicao);
+            if (comum < filho.rotulo.length()) {
+                filho = dividir(no, indice, comum);
+            }
+            filho.oferecer(entrada);
+            posicao += comum;
+            no = filho;
+        }
+        no.terminais = comEntrada(no.terminais, entrada);
+    }
+
+    /**
+     * quebra a aresta do filho em indice depois de tamanho caracteres, com um nó novo
+     * no meio que herda as sugestões da subárvore.
+     */
+    private static No dividir(No pai, int indice, int tamanho) {
+        var filho = pai.filhos[indice];
+        var meio = new No(filho.rotulo.substring(0, tamanho));
+        filho.rotulo = filho.rotulo.substring(tamanho);
+        meio.letras = new char[]{filho.rotulo.charAt(0)};
+        meio.filhos = new No[]{filho};
+        meio.melhores = filho.melhores.clone();
+        pai.filhos[indice] = meio;
+        return meio;
+    }
+
+    private void removerEntrada(UUID id) {
+        var entrada = entradas.remove(id);
+        if (entrada == null) {
+            return;
+        }
+        var caminho = caminho(entrada.chave());
+        var ultimo = caminho.get(caminho.size() - 1);
+        ultimo.terminais = semId(ultimo.terminais, id);
+        // recalcula de baixo para cima, cada nó a partir dos filhos já corrigidos
+        for (int i = caminho.size() - 1; i >= 0; i--) {
+            var no = caminho.get(i);
+            var pai = i == 0 ? raiz : caminho.get(i - 1);
+            if (semId(no.melhores, id) != no.melhores) {
+                no.recalcular();
+            }
+            var indice = pai.indice(no.rotulo.charAt(0));
+            if (no.vazio()) {
+                pai.removerFilho(indice);
+            } else if (no.terminais.length == 0 && no.filhos.length == 1) {
+                // um nó de passagem com um único filho é fundido a ele
+                var unico = no.filhos[0];
+                unico.rotulo = no.rotulo + unico.rotulo;
+                pai.filhos[indice] = unico;
+            }
+        }
+    }
+
+    private static String chave(String texto) {
+        return ESPACOS.matcher(Tokenizador.normalizar(texto)).replaceAll(" ");
+    }
+
+    /**
+     * os nós abaixo da raiz até o que termina exatamente em chave.
+     */
+    private List<No> caminho(String chave) {
+        var caminho = new ArrayList<No>();
+        var no = raiz;
+        var posicao = 0;
+        while (posicao < chave.length()) {
+            no = no.filho(chave.charAt(posicao));
+            caminho.add(no);
+            posicao += no.rotulo.length();
+        }
+        return caminho;
+    }
+
+    private static int prefixoComum(String rotulo, String chave, int inicio) {
+        var limite = Math.min(rotulo.length(), chave.length() - inicio);
+        var comum = 0;
+        while (comum < limite && rotulo.charAt(comum) == chave.charAt(inicio + comum)) {
+            comum++;
+        }
+        return comum;
+    }
+
+    private static Entrada[] semId(Entrada[] lista, UUID id) {
+        for (int i = 0; i < lista.length; i++) {
+            if (lista[i].id().equals(id)) {
+                var resultado = new Entrada[lista.length - 1];
+                System.arraycopy(lista, 0, resultado, 0, i);
+                System.arraycopy(lista, i + 1, resultado, i, lista.length - i - 1);
+                return resultado;
+            }
+        }
+        return lista;
+    }
+
+    private static Entrada[] comEntrada(Entrada[] lista, Entrada entrada) {
+        var resultado = Arrays.copyOf(lista, lista.length + 1);
+        resultado[lista.length] = entrada;
+        return resultado;
+    }
+
+    private record Entrada(UUID id, String titulo, String chave, long gostei) {
+    }
+
+    private static final class No {
+        private String rotulo;
+        private char[] letras = SEM_LETRAS;
+        private No[] filhos = SEM_FILHOS;
+        private Entrada[] terminais = SEM_ENTRADAS;
+        private Entrada[] melhores = SEM_ENTRADAS;
+
+        No(String rotulo) {
+            this.rotulo = rotulo;
+        }
+
+        int indice(char letra) {
+            return Arrays.binarySearch(letras, letra);
+        }
+
+        No filho(char letra) {
+            var indice = indice(letra);
+            return indice < 0 ? null : filhos[indice];
+        }
+
+        void inserirFilho(int posicao, No filho) {
+            var novasLetras = new char[letras.length + 1];
+            var novosFilhos = new No[filhos.length + 1];
+            System.arraycopy(letras, 0, novasLetras, 0, posicao);
+            System.arraycopy(filhos, 0, novosFilhos, 0, posicao);
+            novasLetras[posicao] = filho.rotulo.charAt(0);
+            novosFilhos[posicao] = filho;
+            System.arraycopy(letras, posicao, novasLetras, posicao + 1, letras.length - posicao);
+            System.arraycopy(filhos, posicao, novosFilhos, posicao + 1, filhos.length - posicao);
+            letras = novasLetras;
+            filhos = novosFilhos;
+        }
+
+        void removerFilho(int posicao) {
+            var novasLetras = new char[letras.length - 1];
+            var novosFilhos = new No[filhos.length - 1];
+            System.arraycopy(letras, 0, novasLetras, 0, posicao);
+            System.arraycopy(filhos, 0, novosFilhos, 0, posicao);
+            System.arraycopy(letras, posicao + 1, novasLetras, posicao, letras.length - posicao - 1);
+            System.arraycopy(filhos, posicao + 1, novosFilhos, posicao, filhos.length - posicao - 1);
+            letras = novasLetras;
+            filhos = novosFilhos;
+        }
+
+        void oferecer(Entrada entrada) {
+            var posicao = 0;
+            while (posicao < melhores.length && ORDEM.compare(melhores[posicao], entrada) < 0) {
+                posicao++;
+            }
+            if (posicao >= MAXIMO_SUGESTOES) {
+                return;
+            }
+            var tamanho = Math.min(melhores.length + 1, MAXIMO_SUGESTOES);
+            var novos = new Entrada[tamanho];
+            System.arraycopy(melhores, 0, novos, 0, posicao);
+            novos[posicao] = entrada;
+            System.arraycopy(melhores, posicao, novos, posicao + 1, tamanho - posicao - 1);
+            melhores = novos;
+        }
+
+        void recalcular() {
+            melhores = SEM_ENTRADAS;
+            for (Entrada entrada : terminais) {
+                oferecer(entrada);
+            }
+            for (No filho : filhos) {
+                for (Entrada entrada : filho.melhores) {
+                    oferecer(entrada);
+                }
+            }
+        }
+
+        boolean vazio() {
+            return filhos.length == 0 && terminais.length == 0;
+        }
+
+        int contarDescendentes() {
+            var total = filhos.length;
+            for (No filho : filhos) {
+                total += filho.contarDescendentes();
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.fiap.api.search;
+
+import br.com.fiap.api.dto.VideoPesquisaResponse;
+import br.com.fiap.api.model.Videos;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * índice invertido em memória sobre titulo e descricao, ordenado por BM25.
+ * Cada termo aponta para os videos em que aparece com a sua frequência; palavras
+ * do título contam {@value #PESO_TITULO} vezes.
+ *
+ * <p>As pesquisas só pegam o lock de leitura, então rodam em paralelo; as
+ * alterações do catálogo pegam o de escrita.
+ */
+@Component
+public class IndicePesquisaVideos {
+
+    static final int PESO_TITULO = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<UUID, Integer>> postagens = new HashMap<>();
+    private final Map<UUID, Documento> documentos = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long comprimentoTotal;
+
+    public void indexar(Videos video) {
+        var frequencias = new HashMap<String, Integer>();
+        Tokenizador.tokens(video.getTitulo()).forEach(termo -> frequencias.merge(termo, PESO_TITULO, Integer::sum));
+        Tokenizador.tokens(video.getDescricao()).forEach(termo -> frequencias.merge(termo, 1, Integer::sum));
+        var comprimento = frequencias.values().stream().mapToInt(Integer::intValue).sum();
+        var documento = new Documento(video.getTitulo(), video.getDescricao(), video.getUrl(),
+                comprimento, Set.copyOf(frequencias.keySet()));
+
+        lock.writeLock().lock();
+        try {
+            removerDocumento(video.getId());
+            documentos.put(video.getId(), documento);
+            comprimentoTotal += comprimento;
+            frequencias.forEach((termo, frequencia) ->
+                    postagens.computeIfAbsent(termo, chave -> new HashMap<>()).put(video.getId(), frequencia));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removerDocumento(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<VideoPesquisaResponse> pesquisar(String consulta, int limite) {
+        var termos = new LinkedHashSet<>(Tokenizador.tokens(consulta));
+        if (termos.isEmpty() || limite < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documentos.isEmpty()) {
+                return List.of();
+            }
+            var total = documentos.size();
+            var comprimentoMedio = (double) comprimentoTotal / total;
+            var pontuacoes = new HashMap<UUID, Double>();
+            for (String termo : termos) {
+                var postagem = postagens.get(termo);
+                if (postagem == null) {
+                    continue;
+                }
+                var idf = Math.log(1 + (total - postagem.size() + 0.5) / (postagem.size() + 0.5));
+                postagem.forEach((id, frequencia) -> {
+                    var normalizacao = K1 * (1 - B + B * documentos.get(id).comprimento() / comprimentoMedio);
+                    var pontuacao = idf * frequencia * (K1 + 1) / (frequencia + normalizacao);
+                    pontuacoes.merge(id, pontuacao, Double::sum);
+                });
+            }
+            return melhores(pontuacoes, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<VideoPesquisaResponse> melhores(Map<UUID, Double> pontuacoes, int limite) {
+        // heap mínimo com os limite melhores: O(n log limite) em vez de ordenar tudo
+        var heap = new PriorityQueue<Map.Entry<UUID, Double>>(Map.Entry.comparingByValue());
+        for (var pontuacao : pontuacoes.entrySet()) {
+            heap.offer(pontuacao);
+            if (heap.size() > limite) {
+                heap.poll();
+            }
+        }
+        var resultado = new ArrayList<VideoPesquisaResponse>(heap.size());
+        for (var pontuacao : heap) {
+            var documento = documentos.get(pontuacao.getKey());
+            resultado.add(VideoPesquisaResponse.builder()
+                    .id(pontuacao.getKey())
+                    .titulo(documento.titulo())
+                    .descricao(documento.descricao())
+                    .url(documento.url())
+                    .score(pontuacao.getValue())
+                    .build());
+        }
+        resultado.sort(Comparator.comparingDouble(VideoPesquisaResponse::getScore).reversed());
+        return resultado;
+    }
+
+    private void removerDocumento(UUID id) {
+        var anterior = documentos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        comprimentoTotal -= anterior.comprimento();
+        for (String termo : anterior.termos()) {
+            var postagem = postagens.get(termo);
+            if (postagem != null) {
+                postagem.remove(id);
+                if (postagem.isEmpty()) {
+                    postagens.remove(termo);
+                }
+            }
+        }
+    }
+
+    private record Documento(String titulo, String descricao, String url, int comprimento, Set<String> termos) {
+    }
+}
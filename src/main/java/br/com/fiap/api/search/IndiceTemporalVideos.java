@@ -0,0 +1,130 @@
+package br.com.fiap.api.search;
+
+import br.com.fiap.api.dto.VideoListaResponse;
+import br.com.fiap.api.model.Videos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * videos publicados dentro do horizonte configurado, ordenados por dataPublicacao e id.
+ * Uma janela é um subMap do skip list, lido sem lock enquanto as escritas do catálogo
+ * acontecem em paralelo. Publicações mais antigas que o horizonte são descartadas, e
+ * janelas que começam antes dele ficam para o banco.
+ */
+@Component
+public class IndiceTemporalVideos {
+
+    private static final UUID MENOR_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final UUID MAIOR_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final ConcurrentSkipListMap<Chave, Publicacao> publicacoes = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Chave> chaves = new ConcurrentHashMap<>();
+    private final Duration horizonte;
+    private final Clock clock;
+
+    @Autowired
+    public IndiceTemporalVideos(@Value("${videos.publicados.horizonte:7d}") Duration horizonte) {
+        this(horizonte, Clock.systemDefaultZone());
+    }
+
+    IndiceTemporalVideos(Duration horizonte, Clock clock) {
+        this.horizonte = horizonte;
+        this.clock = clock;
+    }
+
+    public void adicionar(Videos video) {
+        if (video.getDataPublicacao() == null || video.getDataPublicacao().isBefore(inicioHorizonte())) {
+            return;
+        }
+        var chave = new Chave(video.getDataPublicacao(), video.getId());
+        var anterior = chaves.put(video.getId(), chave);
+        if (anterior != null && !anterior.equals(chave)) {
+            publicacoes.remove(anterior);
+        }
+        publicacoes.put(chave, new Publicacao(video.getTitulo(), video.getDescricao(), video.getUrl(), video.getGostei()));
+    }
+
+    public void remover(UUID id) {
+        var chave = chaves.remove(id);
+        if (chave != null) {
+            publicacoes.remove(chave);
+        }
+    }
+
+    public void somarGostei(UUID id, long delta) {
+        var chave = chaves.get(id);
+        if (chave != null) {
+            publicacoes.computeIfPresent(chave, (k, publicacao) -> publicacao.comGostei(publicacao.gostei() + delta));
+        }
+    }
+
+    /**
+     * se a janela que começa em de está inteira no índice.
+     */
+    public boolean cobre(LocalDateTime de) {
+        return !de.isBefore(inicioHorizonte());
+    }
+
+    /**
+     * os videos publicados entre de e ate, inclusive, do mais recente para o mais antigo.
+     */
+    public List<VideoListaResponse> publicados(LocalDateTime de, LocalDateTime ate, int limite) {
+        ConcurrentNavigableMap<Chave, Publicacao> janela =
+                publicacoes.subMap(new Chave(de, MENOR_ID), true, new Chave(ate, MAIOR_ID), true);
+        return janela.descendingMap().entrySet().stream()
+                .limit(limite)
+                .map(entrada -> entrada.getValue().paraResponse(entrada.getKey()))
+                .toList();
+    }
+
+    public int tamanho() {
+        return publicacoes.size();
+    }
+
+    @Scheduled(fixedDelayString = "${videos.publicados.intervalo-limpeza:60000}")
+    public void descartarForaDoHorizonte() {
+        var antigas = publicacoes.headMap(new Chave(inicioHorizonte(), MENOR_ID));
+        antigas.keySet().forEach(chave -> chaves.remove(chave.id(), chave));
+        antigas.clear();
+    }
+
+    private LocalDateTime inicioHorizonte() {
+        return LocalDateTime.now(clock).minus(horizonte);
+    }
+
+    private record Chave(LocalDateTime dataPublicacao, UUID id) implements Comparable<Chave> {
+
+        private static final Comparator<Chave> ORDEM = Comparator.comparing(Chave::dataPublicacao)
+                .thenComparing(Chave::id);
+
+        @Override
+        public int compareTo(Chave outra) {
+            return ORDEM.compare(this, outra);
+        }
+    }
+
+    private record Publicacao(String titulo, String descricao, String url, long gostei) {
+
+        Publicacao comGostei(long gostei) {
+            return new Publicacao(titulo, descricao, url, gostei);
+        }
+
+        VideoListaResponse paraResponse(Chave chave) {
+            return new VideoListaResponse(chave.id(), titulo, descricao, url, chave.dataPublicacao(),
+                    Math.toIntExact(gostei));
+        }
+    }
+}
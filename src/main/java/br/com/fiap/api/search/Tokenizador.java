@@ -0,0 +1,38 @@
+package br.com.fiap.api.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * normaliza texto para os índices em memória: minúsculas, sem acentos e
+ * quebrado em palavras de letras e dígitos.
+ */
+public final class Tokenizador {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private Tokenizador() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        var semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokens(String texto) {
+        var tokens = new ArrayList<String>();
+        for (String token : SEPARADORES.split(normalizar(texto))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
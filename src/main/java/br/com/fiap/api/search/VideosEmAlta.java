@@ -0,0 +1,176 @@
+package br.com.fiap.api.search;
+
+import br.com.fiap.api.dto.VideoEmAltaResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * gostei por minuto de cada video na última hora, num anel de {@value #MINUTOS} baldes.
+ * Cada balde guarda o minuto a que pertence junto com a contagem num único long, então
+ * o clique é um compareAndSet sem lock e um balde de uma hora atrás é reaproveitado
+ * pelo próprio clique que chega no minuto novo.
+ *
+ * <p>O ranking de cada janela configurada é recalculado periodicamente com um heap de
+ * tamanho fixo; a consulta só recorta a lista pronta, sem tocar nos contadores.
+ */
+@Component
+public class VideosEmAlta {
+
+    public static final int MINUTOS = 60;
+
+    private static final long MASCARA_CONTAGEM = 0xFFFF_FFFFL;
+    private static final Comparator<VideoEmAltaResponse> ORDEM = Comparator
+            .comparingLong(VideoEmAltaResponse::getGostei).reversed()
+            .thenComparing(VideoEmAltaResponse::getId);
+
+    private final Map<UUID, Contador> contadores = new ConcurrentHashMap<>();
+    private final List<Duration> janelas;
+    private final int tamanhoRanking;
+    private final Clock clock;
+    private volatile Map<Duration, List<VideoEmAltaResponse>> rankings;
+
+    @Autowired
+    public VideosEmAlta(@Value("${videos.em-alta.janelas:5m,15m,1h}") List<Duration> janelas,
+                        @Value("${videos.em-alta.tamanho:100}") int tamanhoRanking) {
+        this(janelas, tamanhoRanking, Clock.systemUTC());
+    }
+
+    VideosEmAlta(List<Duration> janelas, int tamanhoRanking, Clock clock) {
+        for (Duration janela : janelas) {
+            if (janela.toSeconds() % 60 != 0 || janela.toMinutes() < 1 || janela.toMinutes() > MINUTOS) {
+                throw new IllegalArgumentException("janela de videos em alta deve ter de 1 a 60 minutos inteiros: " + janela);
+            }
+        }
+        this.janelas = janelas.stream().distinct().sorted().toList();
+        this.tamanhoRanking = tamanhoRanking;
+        this.clock = clock;
+        this.rankings = this.janelas.stream().collect(Collectors.toUnmodifiableMap(janela -> janela, janela -> List.of()));
+    }
+
+    public void registrar(UUID id) {
+        var contador = contadores.get(id);
+        if (contador == null) {
+            contador = contadores.computeIfAbsent(id, chave -> new Contador());
+        }
+        contador.incrementar(minutoAtual());
+    }
+
+    public void remover(UUID id) {
+        contadores.remove(id);
+    }
+
+    /**
+     * os videos com mais gostei na janela, segundo o último ranking calculado.
+     */
+    public List<VideoEmAltaResponse> emAlta(Duration janela, int limite) {
+        var ranking = rankings.get(janela);
+        if (ranking == null) {
+            throw new IllegalArgumentException("janela não suportada: " + janela);
+        }
+        return ranking.subList(0, Math.min(limite, ranking.size()));
+    }
+
+    /**
+     * recalcula o ranking de todas as janelas numa única passada pelos contadores e
+     * descarta os videos sem nenhum gostei na última hora.
+     */
+    @Scheduled(fixedDelayString = "${videos.em-alta.intervalo:5000}")
+    public void atualizarRankings() {
+        var minuto = minutoAtual();
+        var minutosPorJanela = janelas.stream().mapToInt(janela -> (int) janela.toMinutes()).toArray();
+        var maiorJanela = minutosPorJanela[minutosPorJanela.length - 1];
+        var heaps = new ArrayList<PriorityQueue<VideoEmAltaResponse>>(janelas.size());
+        janelas.forEach(janela -> heaps.add(new PriorityQueue<>(tamanhoRanking + 1, ORDEM.reversed())));
+
+        contadores.forEach((id, contador) -> {
+            long acumulado = 0;
+            var proxima = 0;
+            for (int passado = 0; passado < maiorJanela; passado++) {
+                acumulado += contador.contagem(minuto - passado);
+                while (proxima < minutosPorJanela.length && minutosPorJanela[proxima] == passado + 1) {
+                    ofertar(heaps.get(proxima++), id, acumulado);
+                }
+            }
+            if (contador.parado(minuto)) {
+                // um clique simultâneo à remoção de um video parado há uma hora pode se perder
+                contadores.remove(id, contador);
+            }
+        });
+
+        var novos = new HashMap<Duration, List<VideoEmAltaResponse>>(janelas.size());
+        for (int i = 0; i < janelas.size(); i++) {
+            var ranking = new ArrayList<>(heaps.get(i));
+            ranking.sort(ORDEM);
+            novos.put(janelas.get(i), List.copyOf(ranking));
+        }
+        rankings = Map.copyOf(novos);
+    }
+
+    public int tamanho() {
+        return contadores.size();
+    }
+
+    private void ofertar(PriorityQueue<VideoEmAltaResponse> heap, UUID id, long gostei) {
+        if (gostei == 0) {
+            return;
+        }
+        // o topo do heap é o pior colocado, trocado só por quem fica à frente dele
+        var candidato = new VideoEmAltaResponse(id, gostei);
+        if (heap.size() < tamanhoRanking) {
+            heap.add(candidato);
+        } else if (ORDEM.compare(candidato, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(candidato);
+        }
+    }
+
+    private long minutoAtual() {
+        return clock.millis() / 60_000;
+    }
+
+    private static final class Contador {
+
+        // minuto nos 32 bits altos, gostei nos 32 baixos
+        private final AtomicLongArray baldes = new AtomicLongArray(MINUTOS);
+
+        void incrementar(long minuto) {
+            var indice = (int) (minuto % MINUTOS);
+            while (true) {
+                var atual = baldes.get(indice);
+                var novo = atual >>> 32 == minuto ? atual + 1 : minuto << 32 | 1;
+                if (baldes.compareAndSet(indice, atual, novo)) {
+                    return;
+                }
+            }
+        }
+
+        long contagem(long minuto) {
+            var balde = baldes.get((int) (minuto % MINUTOS));
+            return balde >>> 32 == minuto ? balde & MASCARA_CONTAGEM : 0;
+        }
+
+        boolean parado(long minuto) {
+            for (int i = 0; i < MINUTOS; i++) {
+                if (baldes.get(i) >>> 32 > minuto - MINUTOS) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
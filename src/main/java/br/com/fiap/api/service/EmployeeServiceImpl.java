@@ -1,58 +1,281 @@
 package br.com.fiap.api.service;
 
+import br.com.fiap.api.dto.WebfluxBulkDto;
 import br.com.fiap.api.dto.WebfluxDto;
 import br.com.fiap.api.mapper.EmployeeMapper;
 import br.com.fiap.api.repository.EmployeeRepository;
 import br.com.fiap.api.entity.Webflux;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
 @Service
 @AllArgsConstructor
 public class EmployeeServiceImpl implements WebfluxService {
 
+    private static final int LOTE_STREAM = 256;
+
+    private static final int BULK_BATCH_SIZE = 1000;
+    private static final Duration BULK_MAX_WAIT = Duration.ofMillis(200);
+    private static final int BULK_CONCURRENCY = 4;
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    // mesmo nome e tags do @Timed de VideoServiceImpl, medido da assinatura ao fim do Mono/Flux
+    static final String METRIC_SERVICE = "api.servico";
+
     private EmployeeRepository webfluxRepository;
+    private ReactiveMongoTemplate mongoTemplate;
+    private ObjectMapper objectMapper;
+    private MeterRegistry meterRegistry;
+    private final Map<String, Mono<WebfluxDto>> inFlightLoads = new ConcurrentHashMap<>();
 
     @Override
     public Mono<WebfluxDto> saveWebflux(WebfluxDto webfluxDto) {
         Webflux webflux = EmployeeMapper.mapToEmployee(webfluxDto);
         Mono<Webflux> savedEmployee = webfluxRepository.save(webflux);
-        return savedEmployee
-                .map((webfluxEntity) -> EmployeeMapper.mapToEmployeeDto(webfluxEntity));
+        return timed("saveWebflux", savedEmployee
+                .map((webfluxEntity) -> EmployeeMapper.mapToEmployeeDto(webfluxEntity)));
     }
 
+    /**
+     * grava um documento por linha do NDJSON em lotes de até {@value #BULK_BATCH_SIZE}
+     * documentos, ou o que tiver chegado em {@code BULK_MAX_WAIT}, com no máximo
+     * {@value #BULK_CONCURRENCY} lotes em gravação. A leitura do corpo só avança
+     * conforme os lotes são gravados, então a memória fica limitada a alguns lotes.
+     */
+    @Override
+    public Flux<WebfluxBulkDto> bulkWebflux(InputStream ndjson) {
+        var totalInseridos = new AtomicLong();
+        return timed("bulkWebflux", readLines(ndjson)
+                .filter(line -> !line.isBlank())
+                .bufferTimeout(BULK_BATCH_SIZE, BULK_MAX_WAIT, true)
+                .index()
+                .flatMap(batch -> insertBatch(batch.getT1() + 1, batch.getT2()), BULK_CONCURRENCY)
+                .doOnNext(progresso -> progresso.setTotalInseridos(totalInseridos.addAndGet(progresso.getInseridos()))));
+    }
+
+    /**
+     * buscas simultâneas pelo mesmo id compartilham um único findById: o Mono da
+     * primeira fica no mapa, com cache(), até terminar.
+     */
     @Override
     public Mono<WebfluxDto> getWebflux(String employeeId) {
-        Mono<Webflux> employeeMono = webfluxRepository.findById(employeeId);
-        return employeeMono.map((webflux -> EmployeeMapper.mapToEmployeeDto(webflux)));
+        return timed("getWebflux", Mono.defer(() -> inFlightLoads.computeIfAbsent(employeeId, this::loadOnce)));
+    }
+
+    /**
+     * uma página de até limit documentos em ordem de id, começando depois de afterId.
+     * Como o ObjectId cresce com o tempo de criação, a próxima página é pedida com o
+     * id do último documento recebido, sem skip.
+     */
+    @Override
+    public Flux<WebfluxDto> getAllEmployees(String afterId, int limit) {
+
+        Flux<Webflux> employeeFlux = findAfter(afterId, PageRequest.of(0, limit));
+        return timed("getAllEmployees", employeeFlux
+                .map((webflux) -> EmployeeMapper.mapToEmployeeDto(webflux)));
     }
 
+    /**
+     * todos os documentos depois de afterId, lidos do Mongo em lotes de
+     * {@value #LOTE_STREAM} conforme o cliente consome a resposta.
+     */
     @Override
-    public Flux<WebfluxDto> getAllEmployees() {
+    public Flux<WebfluxDto> streamAllEmployees(String afterId) {
 
-        Flux<Webflux> employeeFlux  = webfluxRepository.findAll();
-        return employeeFlux
-                .map((webflux) -> EmployeeMapper.mapToEmployeeDto(webflux))
-                .switchIfEmpty(Flux.empty());
+        Flux<Webflux> employeeFlux = findAfter(afterId, Pageable.unpaged());
+        return timed("streamAllEmployees", employeeFlux
+                .limitRate(LOTE_STREAM)
+                .map((webflux) -> EmployeeMapper.mapToEmployeeDto(webflux)));
     }
 
+    /**
+     * um único findAndModify: só os campos informados entram no $set e o documento
+     * atualizado volta na mesma ida ao Mongo, sem a janela entre ler e salvar.
+     */
     @Override
     public Mono<WebfluxDto> updateWebflux(WebfluxDto webfluxDto, String employeeId) {
 
-        Mono<Webflux> employeeMono = webfluxRepository.findById(employeeId);
+        Update update = new Update().set("dataAlteracao", LocalDateTime.now());
+        setIfPresent(update, "titulo", webfluxDto.getTitulo());
+        setIfPresent(update, "descricao", webfluxDto.getDescricao());
+        setIfPresent(update, "url", webfluxDto.getUrl());
+
+        return timed("updateWebflux", mongoTemplate.findAndModify(byId(employeeId), update, RETURN_NEW, Webflux.class)
+                .map((webflux -> EmployeeMapper.mapToEmployeeDto(webflux))));
+    }
 
-        return employeeMono.flatMap((existingWebflux) -> {
-            existingWebflux.setUrl(webfluxDto.getUrl());
-            existingWebflux.setDescricao(webfluxDto.getDescricao());
-            existingWebflux.setTitulo(webfluxDto.getTitulo());
-            return webfluxRepository.save(existingWebflux);
-        }).map((webflux -> EmployeeMapper.mapToEmployeeDto(webflux)));
+    @Override
+    public Mono<WebfluxDto> likeWebflux(String employeeId) {
+        Update update = new Update().inc("gostei", 1);
+        return timed("likeWebflux", mongoTemplate.findAndModify(byId(employeeId), update, RETURN_NEW, Webflux.class)
+                .map((webflux -> EmployeeMapper.mapToEmployeeDto(webflux))));
     }
 
     @Override
-    public Mono<Void> deleteWebflux(String id) {
-        return webfluxRepository.deleteById(id);
+    public Mono<Boolean> deleteWebflux(String id) {
+        return timed("deleteWebflux", mongoTemplate.remove(byId(id), Webflux.class)
+                .map(result -> result.getDeletedCount() > 0));
+    }
+
+    /**
+     * o @Timed só mediria a montagem do Mono; aqui o tempo vai da assinatura até o
+     * sinal final, com as mesmas tags do TimedAspect.
+     */
+    private <T> Mono<T> timed(String method, Mono<T> mono) {
+        return Mono.defer(() -> {
+            var timing = new Timing(method);
+            return mono
+                    .doOnSuccess(value -> timing.stop("none"))
+                    .doOnError(e -> timing.stop(e.getClass().getSimpleName()))
+                    .doOnCancel(() -> timing.stop("cancelled"));
+        });
+    }
+
+    private <T> Flux<T> timed(String method, Flux<T> flux) {
+        return Flux.defer(() -> {
+            var timing = new Timing(method);
+            return flux
+                    .doOnComplete(() -> timing.stop("none"))
+                    .doOnError(e -> timing.stop(e.getClass().getSimpleName()))
+                    .doOnCancel(() -> timing.stop("cancelled"));
+        });
+    }
+
+    private Mono<WebfluxDto> loadOnce(String employeeId) {
+        Mono<Webflux> employeeMono = webfluxRepository.findById(employeeId);
+        return employeeMono
+                .map((webflux -> EmployeeMapper.mapToEmployeeDto(webflux)))
+                .doFinally(signal -> inFlightLoads.remove(employeeId))
+                .cache();
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("id").is(id));
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    private Mono<WebfluxBulkDto> insertBatch(long lote, List<String> lines) {
+        var documentos = new ArrayList<Webflux>(lines.size());
+        for (String line : lines) {
+            try {
+                documentos.add(EmployeeMapper.mapToEmployee(objectMapper.readValue(line, WebfluxDto.class)));
+            } catch (JsonProcessingException e) {
+                log.warn("linha ignorada no lote {} da importação: {}", lote, e.getOriginalMessage());
+            }
+        }
+        var progresso = WebfluxBulkDto.builder()
+                .lote(lote)
+                .documentos(lines.size())
+                .falhas(lines.size() - documentos.size())
+                .build();
+        if (documentos.isEmpty()) {
+            return Mono.just(progresso);
+        }
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Webflux.class)
+                .insert(documentos)
+                .execute()
+                .map(result -> result.getInsertedCount())
+                .onErrorResume(e -> {
+                    log.warn("falha ao gravar o lote {} da importação", lote, e);
+                    return Mono.just(insertedBeforeFailure(e));
+                })
+                .map(inseridos -> {
+                    progresso.setInseridos(inseridos);
+                    progresso.setFalhas(lines.size() - inseridos);
+                    return progresso;
+                });
+    }
+
+    // no modo UNORDERED o Mongo continua depois de um documento com erro e informa quantos entraram
+    private static int insertedBeforeFailure(Throwable e) {
+        if (e instanceof BulkOperationException bulk) {
+            return bulk.getResult().getInsertedCount();
+        }
+        if (e instanceof MongoBulkWriteException bulk) {
+            return bulk.getWriteResult().getInsertedCount();
+        }
+        return 0;
+    }
+
+    private static Flux<String> readLines(InputStream ndjson) {
+        return Flux.using(
+                        () -> new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8)),
+                        reader -> Flux.fromStream(reader.lines()),
+                        reader -> {
+                            try {
+                                reader.close();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<Webflux> findAfter(String afterId, Pageable pageable) {
+        return afterId == null || afterId.isBlank()
+                ? webfluxRepository.findAllByOrderByIdAsc(pageable)
+                : webfluxRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+    }
+
+    // um cancel depois do sucesso não conta a mesma assinatura duas vezes
+    private final class Timing {
+        private final Timer.Sample sample = Timer.start(meterRegistry);
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        private final String method;
+
+        private Timing(String method) {
+            this.method = method;
+        }
+
+        void stop(String exception) {
+            if (stopped.compareAndSet(false, true)) {
+                sample.stop(Timer.builder(METRIC_SERVICE)
+                        .tag("class", EmployeeServiceImpl.class.getName())
+                        .tag("method", method)
+                        .tag("exception", exception)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+        }
     }
-}
\ No newline at end of file
+}
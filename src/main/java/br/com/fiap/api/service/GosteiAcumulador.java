@@ -0,0 +1,118 @@
+package br.com.fiap.api.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * acumula os cliques de gostei em memória até o próximo descarregamento no banco.
+ * cada video tem os seus próprios LongAdder, então cliques concorrentes no mesmo
+ * video não disputam lock nem linha do banco. Um video sai do mapa quando não tem
+ * mais nada pendente, então o descarregamento percorre só os videos com cliques
+ * recentes, e não todos os que já receberam gostei.
+ */
+@Component
+public class GosteiAcumulador {
+
+    private final Map<UUID, Contadores> contadores = new ConcurrentHashMap<>();
+
+    public void incrementar(UUID id) {
+        while (true) {
+            var contador = contadores(id);
+            contador.pendente.increment();
+            if (!contador.aposentado) {
+                return;
+            }
+            // o contador saiu do mapa depois de lido: desfaz o clique e repete no atual
+            contador.pendente.decrement();
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * gostei ainda não confirmados no banco: os acumulados e os que estão sendo gravados.
+     */
+    public long pendentes(UUID id) {
+        var contador = contadores.get(id);
+        return contador == null ? 0 : contador.pendente.sum() + contador.emGravacao.sum();
+    }
+
+    /**
+     * retira os deltas acumulados de todos os videos e os marca como em gravação
+     * até que sejam confirmados ou devolvidos; cliques que chegarem durante a
+     * drenagem ficam para o próximo ciclo. O delta entra em gravação antes de sair
+     * dos pendentes, então pendentes nunca mostra menos gostei do que existem.
+     */
+    public Map<UUID, Long> drenar() {
+        Map<UUID, Long> deltas = new HashMap<>();
+        contadores.forEach((id, contador) -> {
+            long delta = contador.pendente.sum();
+            if (delta != 0) {
+                contador.emGravacao.add(delta);
+                contador.pendente.add(-delta);
+                deltas.put(id, delta);
+            }
+        });
+        return deltas;
+    }
+
+    public void confirmar(UUID id, long delta) {
+        var contador = contadores.get(id);
+        if (contador != null) {
+            contador.emGravacao.add(-delta);
+            aposentarSeOcioso(id, contador);
+        }
+    }
+
+    /**
+     * devolve um delta que não pôde ser gravado, para ser tentado no próximo ciclo.
+     */
+    public void devolver(UUID id, long delta) {
+        var contador = contadores(id);
+        contador.pendente.add(delta);
+        contador.emGravacao.add(-delta);
+    }
+
+    public void descartar(UUID id) {
+        contadores.remove(id);
+    }
+
+    public int tamanho() {
+        return contadores.size();
+    }
+
+    /**
+     * marca o contador como aposentado antes de conferir de novo que está zerado. Um
+     * clique que ainda viu o contador ativo já está somado nessa segunda leitura, e um
+     * que o viu aposentado se desfaz e vai para um contador novo, então nada se perde.
+     */
+    private void aposentarSeOcioso(UUID id, Contadores contador) {
+        if (!contador.ocioso()) {
+            return;
+        }
+        contador.aposentado = true;
+        if (contador.ocioso()) {
+            contadores.remove(id, contador);
+        } else {
+            contador.aposentado = false;
+        }
+    }
+
+    private Contadores contadores(UUID id) {
+        return contadores.computeIfAbsent(id, chave -> new Contadores());
+    }
+
+    private static final class Contadores {
+        private final LongAdder pendente = new LongAdder();
+        private final LongAdder emGravacao = new LongAdder();
+        private volatile boolean aposentado;
+
+        boolean ocioso() {
+            return pendente.sum() == 0 && emGravacao.sum() == 0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.fiap.api.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * grava um bloco de deltas de gostei numa única transação, enviando os UPDATE em
+ * batches JDBC de {@value #TAMANHO_BATCH} (o mesmo hibernate.jdbc.batch_size dos
+ * INSERT do {@link VideoLoteImportador}). Ou o bloco inteiro é gravado ou nada é.
+ */
+@Component
+@RequiredArgsConstructor
+public class GosteiLoteGravador {
+
+    static final int TAMANHO_BATCH = 50;
+
+    private static final String SOMAR_GOSTEI = "UPDATE videos SET gostei = gostei + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * soma os deltas e devolve os ids que não alteraram nenhuma linha, ou seja, de
+     * videos apagados depois do gostei.
+     */
+    public Set<UUID> somar(List<Map.Entry<UUID, Long>> deltas) {
+        var atualizados = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(SOMAR_GOSTEI, deltas,
+                TAMANHO_BATCH, (comando, delta) -> {
+                    comando.setLong(1, delta.getValue());
+                    comando.setObject(2, delta.getKey());
+                }));
+        var inexistentes = new HashSet<UUID>();
+        for (int batch = 0; batch < atualizados.length; batch++) {
+            for (int i = 0; i < atualizados[batch].length; i++) {
+                if (atualizados[batch][i] == 0) {
+                    inexistentes.add(deltas.get(batch * TAMANHO_BATCH + i).getKey());
+                }
+            }
+        }
+        return inexistentes;
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.fiap.api.service;
+
+import br.com.fiap.api.dto.VideoLoteResponse;
+import br.com.fiap.api.model.Videos;
+import br.com.fiap.api.utils.UuidV7;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * grava lotes grandes de videos. Cada bloco de {@value #TAMANHO_BLOCO} videos é
+ * persistido numa transação própria, e o Hibernate agrupa os INSERT em batches
+ * JDBC (hibernate.jdbc.batch_size); uma falha num bloco não desfaz os anteriores.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VideoLoteImportador {
+
+    static final int TAMANHO_BLOCO = 500;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+
+    public List<VideoLoteResponse> importar(List<Videos> videos) {
+        var resultados = new ArrayList<VideoLoteResponse>(videos.size());
+        var validos = new ArrayList<VideoLoteResponse>();
+        for (int indice = 0; indice < videos.size(); indice++) {
+            var erros = validar(videos.get(indice));
+            var resultado = VideoLoteResponse.builder()
+                    .indice(indice)
+                    .status(erros.isEmpty() ? VideoLoteResponse.Status.CRIADO : VideoLoteResponse.Status.INVALIDO)
+                    .erros(erros)
+                    .build();
+            if (erros.isEmpty()) {
+                var id = UuidV7.gerar();
+                videos.get(indice).setId(id);
+                videos.get(indice).setVersao(null);
+                resultado.setId(id);
+                validos.add(resultado);
+            }
+            resultados.add(resultado);
+        }
+
+        for (int inicio = 0; inicio < validos.size(); inicio += TAMANHO_BLOCO) {
+            var bloco = validos.subList(inicio, Math.min(inicio + TAMANHO_BLOCO, validos.size()));
+            gravarBloco(videos, bloco);
+        }
+        return resultados;
+    }
+
+    private void gravarBloco(List<Videos> videos, List<VideoLoteResponse> bloco) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // persist em vez de save: o id já está definido e o save faria um SELECT por video
+                bloco.forEach(resultado -> entityManager.persist(videos.get(resultado.getIndice())));
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            log.warn("falha ao gravar bloco de {} videos a partir do índice {}",
+                    bloco.size(), bloco.get(0).getIndice(), e);
+            bloco.forEach(resultado -> {
+                resultado.setId(null);
+                resultado.setStatus(VideoLoteResponse.Status.FALHA);
+                resultado.setErros(List.of("falha ao gravar video"));
+            });
+        }
+    }
+
+    private List<String> validar(Videos video) {
+        if (video == null) {
+            return List.of("video não pode estar vazio");
+        }
+        var erros = new ArrayList<String>();
+        for (ConstraintViolation<Videos> violacao : validator.validate(video)) {
+            erros.add(violacao.getMessage());
+        }
+        Collections.sort(erros);
+        return erros;
+    }
+}
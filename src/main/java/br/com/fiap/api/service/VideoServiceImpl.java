@@ -1,68 +1,484 @@
 package br.com.fiap.api.service;
 
+import br.com.fiap.api.dto.VideoCursor;
+import br.com.fiap.api.dto.VideoEmAltaResponse;
+import br.com.fiap.api.dto.VideoListaResponse;
+import br.com.fiap.api.dto.VideoLoteResponse;
+import br.com.fiap.api.dto.VideoMultiplosResponse;
+import br.com.fiap.api.dto.VideoPesquisaResponse;
+import br.com.fiap.api.dto.VideoRequest;
+import br.com.fiap.api.dto.VideoSugestaoResponse;
 import br.com.fiap.api.exception.MensagemNotFoundException;
+import br.com.fiap.api.exception.VersaoConflitanteException;
 import br.com.fiap.api.model.Videos;
 import br.com.fiap.api.repository.VideoRepository;
+import br.com.fiap.api.search.AutocompletarTitulos;
+import br.com.fiap.api.search.IndicePesquisaVideos;
+import br.com.fiap.api.search.IndiceTemporalVideos;
+import br.com.fiap.api.search.VideosEmAlta;
+import br.com.fiap.api.utils.UuidV7;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "api.servico", histogram = true)
 public class VideoServiceImpl implements VideosService {
 
+    public static final String CACHE_VIDEOS = "videos";
+
+    private static final int TAMANHO_LOTE_EXPORTACAO = 500;
+    private static final int TAMANHO_BLOCO_GOSTEI = 500;
+    private static final int TENTATIVAS_GOSTEI = 3;
+    private static final long ESPERA_BASE_GOSTEI_MS = 20;
+
     private final VideoRepository videoRepository;
+    private final GosteiAcumulador gosteiAcumulador;
+    private final CacheManager cacheManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final VideoLoteImportador videoLoteImportador;
+    private final IndicePesquisaVideos indicePesquisaVideos;
+    private final AutocompletarTitulos autocompletarTitulos;
+    private final IndiceTemporalVideos indiceTemporalVideos;
+    private final VideosEmAlta videosEmAlta;
+    private final TransactionTemplate transactionTemplate;
+    private final GosteiLoteGravador gosteiLoteGravador;
+    private final AtomicLong versaoCatalogo = new AtomicLong();
 
     @Override
     public Videos criarVideo(Videos video) {
-        video.setId(UUID.randomUUID());
-        return videoRepository.save(video);
+        video.setId(UuidV7.gerar());
+        // sem versão o save persiste direto, sem o SELECT do merge
+        video.setVersao(null);
+        var videoCriado = videoRepository.save(video);
+        versaoCatalogo.incrementAndGet();
+        indexar(videoCriado);
+        return videoCriado;
+    }
+
+    @Override
+    public List<VideoLoteResponse> criarVideos(List<Videos> videos) {
+        var resultados = videoLoteImportador.importar(videos);
+        versaoCatalogo.incrementAndGet();
+        resultados.stream()
+                .filter(resultado -> resultado.getStatus() == VideoLoteResponse.Status.CRIADO)
+                .forEach(resultado -> indexar(videos.get(resultado.getIndice())));
+        return resultados;
     }
 
     @Override
     public Videos buscarVideo(UUID id) {
-        return videoRepository.findById(id)
-                .orElseThrow(() -> new MensagemNotFoundException("video não encontrado"));
+        return comGosteiPendente(id, buscarVideoEmCache(id));
+    }
+
+    /**
+     * o que já está no cache não vai ao banco; o restante é lido com um único IN,
+     * limitado pelo controller a 100 ids. As linhas lidas assim não entram no cache:
+     * a leitura acontece fora do loader do cache, e um descarregamento de gostei que
+     * terminasse antes do put teria o seu evict desfeito pela linha antiga.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public VideoMultiplosResponse buscarVideos(List<UUID> ids) {
+        var pedidos = new LinkedHashSet<>(ids);
+        var encontrados = new HashMap<UUID, Videos>(pedidos.size());
+        var faltantes = new ArrayList<UUID>();
+        for (UUID id : pedidos) {
+            var video = cacheVideos().get(id, Videos.class);
+            if (video == null) {
+                faltantes.add(id);
+            } else {
+                encontrados.put(id, video);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            videoRepository.findAllById(faltantes).forEach(video -> encontrados.put(video.getId(), video));
+        }
+        var videos = new ArrayList<Videos>(encontrados.size());
+        var naoEncontrados = new ArrayList<UUID>();
+        for (UUID id : pedidos) {
+            var video = encontrados.get(id);
+            if (video == null) {
+                naoEncontrados.add(id);
+            } else {
+                videos.add(comGosteiPendente(id, video));
+            }
+        }
+        return new VideoMultiplosResponse(videos, naoEncontrados);
     }
+
     @Override
     public List<Videos> buscarVideoTitulo(String titulo, LocalDateTime dataPublicacao) {
         return videoRepository.findByTituloAndDataPublicacao(titulo, dataPublicacao);
     }
+    @Override
+    public List<VideoPesquisaResponse> pesquisarVideos(String consulta, int limite) {
+        return indicePesquisaVideos.pesquisar(consulta, limite);
+    }
+    @Override
+    public List<VideoSugestaoResponse> autocompletarTitulo(String prefixo, int limite) {
+        return autocompletarTitulos.sugerir(prefixo, limite);
+    }
+
     @Override
     public Videos alterarVideo(UUID id, Videos videosAtualizada) {
-        var video = buscarVideo(id);
-        if (!video.getId().equals(videosAtualizada.getId())) {
+        return alterarVideo(id, videosAtualizada, null);
+    }
+
+    /**
+     * um único comando altera a linha e a devolve já gravada, então a resposta não
+     * depende do cache nem de uma segunda leitura. Com versaoEsperada o UPDATE só
+     * acontece se a versão no banco for a mesma; só quando ele não altera nada um
+     * segundo comando separa o conflito do video inexistente.
+     */
+    @Override
+    public Videos alterarVideo(UUID id, Videos videosAtualizada, Long versaoEsperada) {
+        if (!id.equals(videosAtualizada.getId())) {
             throw new MensagemNotFoundException("video não apresenta o ID correto");
         }
-        video.setDataAlteracao(LocalDateTime.now());
-        video.setDescricao(videosAtualizada.getDescricao());
-        video.setUrl(videosAtualizada.getUrl());
-        return videoRepository.save(video);
+        var descricao = videosAtualizada.getDescricao();
+        var url = videosAtualizada.getUrl();
+        var dataAlteracao = LocalDateTime.now();
+        var alterado = versaoEsperada == null
+                ? videoRepository.alterarVideo(id, descricao, url, dataAlteracao)
+                : videoRepository.alterarVideo(id, descricao, url, dataAlteracao, versaoEsperada);
+        var videoSalvo = alterado
+                .map(video -> video.toBuilder().build())
+                .orElseThrow(() -> versaoEsperada != null && videoRepository.existsById(id)
+                        ? new VersaoConflitanteException("video alterado por outra requisição")
+                        : new MensagemNotFoundException("video não encontrado"));
+        versaoCatalogo.incrementAndGet();
+        cacheVideos().evict(id);
+        indicePesquisaVideos.indexar(videoSalvo);
+        indiceTemporalVideos.adicionar(videoSalvo);
+        return comGosteiPendente(id, videoSalvo);
+    }
+
+    /**
+     * altera a entidade gerenciada e deixa o dirty checking gerar o UPDATE: com o
+     * {@code @DynamicUpdate} de Videos só as colunas que mudaram são escritas, e um
+     * patch que não muda nada não escreve nem reindexa. Cache, versão do catálogo e
+     * índices só mudam depois do commit: uma leitura feita antes dele não volta a
+     * guardar a linha antiga no cache, e um commit que falha não os deixa à frente do banco.
+     */
+    @Override
+    public Videos corrigirVideo(UUID id, VideoRequest alteracoes) {
+        var correcao = transactionTemplate.execute(status -> corrigir(id, alteracoes));
+        var videoSalvo = correcao.video();
+        if (!correcao.alterado()) {
+            return comGosteiPendente(id, videoSalvo);
+        }
+        versaoCatalogo.incrementAndGet();
+        cacheVideos().evict(id);
+        if (correcao.tituloAlterado() || correcao.descricaoAlterada()) {
+            indicePesquisaVideos.indexar(videoSalvo);
+        }
+        if (correcao.tituloAlterado()) {
+            autocompletarTitulos.adicionar(id, videoSalvo.getTitulo(), videoSalvo.getGostei());
+        }
+        indiceTemporalVideos.adicionar(videoSalvo);
+        return comGosteiPendente(id, videoSalvo);
+    }
+
+    private Correcao corrigir(UUID id, VideoRequest alteracoes) {
+        var video = carregarVideo(id);
+        var tituloAlterado = alterar(alteracoes.getTitulo(), video.getTitulo(), video::setTitulo);
+        var descricaoAlterada = alterar(alteracoes.getDescricao(), video.getDescricao(), video::setDescricao);
+        var urlAlterada = alterar(alteracoes.getUrl(), video.getUrl(), video::setUrl);
+        var alterado = tituloAlterado || descricaoAlterada || urlAlterada;
+        if (alterado) {
+            video.setDataAlteracao(LocalDateTime.now());
+            try {
+                entityManager.flush();
+            } catch (OptimisticLockException e) {
+                throw new VersaoConflitanteException("video alterado por outra requisição");
+            }
+        }
+        return new Correcao(video.toBuilder().build(), alterado, tituloAlterado, descricaoAlterada);
     }
 
     @Override
     public boolean apagarVideo(UUID id) {
-        var video = buscarVideo(id);
-        videoRepository.delete(video);
+        if (videoRepository.apagarVideo(id) == 0) {
+            throw new MensagemNotFoundException("video não encontrado");
+        }
+        versaoCatalogo.incrementAndGet();
+        cacheVideos().evict(id);
+        indicePesquisaVideos.remover(id);
+        autocompletarTitulos.remover(id);
+        indiceTemporalVideos.remover(id);
+        videosEmAlta.remover(id);
+        gosteiAcumulador.descartar(id);
         return true;
     }
 
     @Override
     public Videos incrementarGostei(UUID id) {
-        var video = buscarVideo(id);
-        video.setGostei(video.getGostei() + 1);
-        return videoRepository.save(video);
+        var video = buscarVideoEmCache(id);
+        gosteiAcumulador.incrementar(id);
+        videosEmAlta.registrar(id);
+        versaoCatalogo.incrementAndGet();
+        return comGosteiPendente(id, video);
+    }
+
+    /**
+     * as listagens já somam os gostei pendentes, então o clique muda a versão e o
+     * descarregamento, que só move o delta do acumulador para o banco, não muda.
+     */
+    @Override
+    public long versaoCatalogo() {
+        return versaoCatalogo.get();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Videos> listarVideo(Pageable pageable) {
 
-        return videoRepository.listarVideos(pageable);
+        return videoRepository.listarVideos(pageable).map(video -> comGosteiPendente(video.getId(), video));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Videos> listarVideo(VideoCursor cursor, int tamanho) {
+        var pageable = PageRequest.of(0, tamanho);
+        var videos = cursor == null
+                ? videoRepository.listarVideosPorCursor(pageable)
+                : videoRepository.listarVideosPorCursor(cursor.getDataPublicacao(), cursor.getId(), pageable);
+        return videos.map(video -> comGosteiPendente(video.getId(), video));
+    }
+
+    /**
+     * só as colunas da listagem, lidas como DTO: o Hibernate não instancia
+     * entidades nem guarda cópias delas para o dirty checking.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<VideoListaResponse> listarResumoVideos(Pageable pageable) {
+        return videoRepository.listarResumoVideos(pageable).map(this::comGosteiPendente);
+    }
+
+    /**
+     * janelas dentro do horizonte do índice temporal não vão ao banco; as que começam
+     * antes dele usam o BETWEEN sobre o índice de data_publicacao. Sem @Transactional
+     * aqui: só a consulta ao repositório, que já é transacional, pega uma conexão.
+     */
+    @Override
+    public List<VideoListaResponse> listarPublicados(LocalDateTime de, LocalDateTime ate, int limite) {
+        var videos = indiceTemporalVideos.cobre(de)
+                ? indiceTemporalVideos.publicados(de, ate, limite)
+                : videoRepository.listarPublicados(de, ate, PageRequest.of(0, limite));
+        videos.forEach(this::comGosteiPendente);
+        return videos;
     }
 
+    /**
+     * ranking calculado em memória a partir dos cliques, sem consultar o banco.
+     */
+    @Override
+    public List<VideoEmAltaResponse> listarEmAlta(Duration janela, int limite) {
+        return videosEmAlta.emAlta(janela, limite);
+    }
+
+    /**
+     * percorre a tabela com um cursor do banco e limpa o contexto de persistência a
+     * cada lote, então o consumo de memória não cresce com o tamanho do catálogo.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarVideos(OutputStream saida) throws IOException {
+        var escritor = objectMapper.writerFor(Videos.class);
+        try (var videos = videoRepository.exportarVideos()) {
+            var iterador = videos.iterator();
+            var exportados = 0;
+            while (iterador.hasNext()) {
+                var video = iterador.next();
+                saida.write(escritor.writeValueAsBytes(comGosteiPendente(video.getId(), video)));
+                saida.write('\n');
+                if (++exportados % TAMANHO_LOTE_EXPORTACAO == 0) {
+                    saida.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        saida.flush();
+    }
+
+    /**
+     * monta os índices em memória a partir do banco quando a aplicação sobe.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarIndices() {
+        try (var videos = videoRepository.exportarVideos()) {
+            var iterador = videos.iterator();
+            var carregados = 0;
+            while (iterador.hasNext()) {
+                indexar(iterador.next());
+                if (++carregados % TAMANHO_LOTE_EXPORTACAO == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("índices em memória carregados com {} videos", indicePesquisaVideos.tamanho());
+    }
+
+    /**
+     * grava no banco os gostei acumulados desde o último ciclo, em blocos de
+     * {@value #TAMANHO_BLOCO_GOSTEI} videos, cada um numa transação com os UPDATE em
+     * batch. A entrada do cache só é removida depois da gravação, assim quem lê no meio
+     * do ciclo continua somando o delta em gravação ao valor antigo; uma carga em
+     * andamento no cache termina antes do evict e também é descartada.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${videos.gostei.intervalo-descarga:1000}")
+    public void descarregarGostei() {
+        var deltas = new ArrayList<>(gosteiAcumulador.drenar().entrySet());
+        for (int inicio = 0; inicio < deltas.size(); inicio += TAMANHO_BLOCO_GOSTEI) {
+            descarregarBloco(deltas.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_GOSTEI, deltas.size())));
+        }
+    }
+
+    private void descarregarBloco(List<Map.Entry<UUID, Long>> bloco) {
+        Set<UUID> inexistentes;
+        try {
+            inexistentes = somarGostei(bloco);
+        } catch (RuntimeException e) {
+            log.warn("falha ao gravar gostei de {} videos, nova tentativa no próximo ciclo", bloco.size(), e);
+            bloco.forEach(delta -> gosteiAcumulador.devolver(delta.getKey(), delta.getValue()));
+            return;
+        }
+        bloco.forEach(delta -> {
+            var id = delta.getKey();
+            cacheVideos().evict(id);
+            if (inexistentes.contains(id)) {
+                gosteiAcumulador.descartar(id);
+            } else {
+                gosteiAcumulador.confirmar(id, delta.getValue());
+                autocompletarTitulos.somarGostei(id, delta.getValue());
+                indiceTemporalVideos.somarGostei(id, delta.getValue());
+            }
+        });
+    }
+
+    /**
+     * somar gostei não conflita com edições nem com outro descarregamento, então uma
+     * falha transitória (lock, timeout) é tentada de novo logo, com espera exponencial
+     * e aleatória para que os blocos não voltem todos ao mesmo tempo. Como o bloco é
+     * gravado numa transação só, repetir não soma nenhum delta duas vezes.
+     */
+    private Set<UUID> somarGostei(List<Map.Entry<UUID, Long>> bloco) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return gosteiLoteGravador.somar(bloco);
+            } catch (TransientDataAccessException e) {
+                if (tentativa == TENTATIVAS_GOSTEI) {
+                    throw e;
+                }
+                esperar(ThreadLocalRandom.current().nextLong(ESPERA_BASE_GOSTEI_MS << tentativa));
+            }
+        }
+    }
+
+    private static void esperar(long milissegundos) {
+        try {
+            Thread.sleep(milissegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("descarregamento de gostei interrompido", e);
+        }
+    }
+
+    private void indexar(Videos video) {
+        indicePesquisaVideos.indexar(video);
+        autocompletarTitulos.adicionar(video.getId(), video.getTitulo(), video.getGostei());
+        indiceTemporalVideos.adicionar(video);
+    }
+
+    private static boolean alterar(String novo, String atual, Consumer<String> campo) {
+        if (novo == null || novo.equals(atual)) {
+            return false;
+        }
+        campo.accept(novo);
+        return true;
+    }
+
+    private Cache cacheVideos() {
+        return cacheManager.getCache(CACHE_VIDEOS);
+    }
+
+    /**
+     * o video persistido, sem os gostei pendentes; a instância é compartilhada entre
+     * requisições e não deve ser alterada. A leitura do banco roda dentro do cache, por
+     * chave: requisições simultâneas esperam uma única leitura, e um evict feito durante
+     * ela espera o fim da carga e remove o resultado, que pode ser anterior à gravação.
+     */
+    private Videos buscarVideoEmCache(UUID id) {
+        try {
+            // guarda uma cópia para que a instância em cache nunca seja a gerenciada pelo JPA
+            return cacheVideos().get(id, () -> carregarVideo(id).toBuilder().build());
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private Videos carregarVideo(UUID id) {
+        return videoRepository.findById(id)
+                .orElseThrow(() -> new MensagemNotFoundException("video não encontrado"));
+    }
+
+    private VideoListaResponse comGosteiPendente(VideoListaResponse video) {
+        video.setGostei(Math.toIntExact(video.getGostei() + gosteiAcumulador.pendentes(video.getId())));
+        return video;
+    }
+
+    private Videos comGosteiPendente(UUID id, Videos video) {
+        var pendentes = gosteiAcumulador.pendentes(id);
+        if (pendentes == 0) {
+            return video;
+        }
+        return video.toBuilder()
+                .gostei(Math.toIntExact(video.getGostei() + pendentes))
+                .build();
+    }
+
+    private record Correcao(Videos video, boolean alterado, boolean tituloAlterado, boolean descricaoAlterada) {
+    }
 }
@@ -1,7 +1,18 @@
 package br.com.fiap.api.service;
 
+import br.com.fiap.api.dto.VideoCursor;
+import br.com.fiap.api.dto.VideoEmAltaResponse;
+import br.com.fiap.api.dto.VideoListaResponse;
+import br.com.fiap.api.dto.VideoLoteResponse;
+import br.com.fiap.api.dto.VideoMultiplosResponse;
+import br.com.fiap.api.dto.VideoPesquisaResponse;
+import br.com.fiap.api.dto.VideoRequest;
+import br.com.fiap.api.dto.VideoSugestaoResponse;
 import br.com.fiap.api.model.Videos;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Dictionary;
 import java.util.List;
@@ -10,6 +21,7 @@ import java.util.UUID;
 import org.springframework.core.convert.Property;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import reactor.core.publisher.Flux;
 
@@ -21,14 +33,57 @@ public interface VideosService {
 
   Videos criarVideo(Videos video);
 
+  List<VideoLoteResponse> criarVideos(List<Videos> videos);
+
   Videos buscarVideo(UUID id);
+
+  /**
+   * busca vários videos de uma vez, mantendo a ordem dos ids pedidos.
+   */
+  VideoMultiplosResponse buscarVideos(List<UUID> ids);
+
   Videos alterarVideo(UUID id, Videos VideoNova);
 
+  /**
+   * com versaoEsperada, só altera se o video ainda estiver nessa versão.
+   */
+  Videos alterarVideo(UUID id, Videos videoNova, Long versaoEsperada);
+
+  /**
+   * altera só os campos não nulos de alteracoes.
+   */
+  Videos corrigirVideo(UUID id, VideoRequest alteracoes);
+
   boolean apagarVideo(UUID id);
   Videos incrementarGostei(UUID id);
 
   Page<Videos> listarVideo(Pageable pageable);
 
+  Slice<Videos> listarVideo(VideoCursor cursor, int tamanho);
+
+  Page<VideoListaResponse> listarResumoVideos(Pageable pageable);
+
+  List<VideoListaResponse> listarPublicados(LocalDateTime de, LocalDateTime ate, int limite);
+
+  /**
+   * os videos com mais gostei na janela, do mais curtido para o menos.
+   */
+  List<VideoEmAltaResponse> listarEmAlta(Duration janela, int limite);
+
   List<Videos> buscarVideoTitulo(String titulo, LocalDateTime dataPublicacao);
 
+  List<VideoPesquisaResponse> pesquisarVideos(String consulta, int limite);
+
+  List<VideoSugestaoResponse> autocompletarTitulo(String prefixo, int limite);
+
+  /**
+   * muda a cada escrita que altera o conteúdo das listagens.
+   */
+  long versaoCatalogo();
+
+  /**
+   * escreve todos os videos na saída, um JSON por linha.
+   */
+  void exportarVideos(OutputStream saida) throws IOException;
+
 }
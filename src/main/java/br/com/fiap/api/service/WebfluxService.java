@@ -1,17 +1,26 @@
 package br.com.fiap.api.service;
 
+import br.com.fiap.api.dto.WebfluxBulkDto;
 import br.com.fiap.api.dto.WebfluxDto;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
+
 public interface WebfluxService {
     Mono<WebfluxDto> saveWebflux(WebfluxDto webfluxDto);
 
+    Flux<WebfluxBulkDto> bulkWebflux(InputStream ndjson);
+
     Mono<WebfluxDto> getWebflux(String employeeId);
 
-    Flux<WebfluxDto> getAllEmployees();
+    Flux<WebfluxDto> getAllEmployees(String afterId, int limit);
+
+    Flux<WebfluxDto> streamAllEmployees(String afterId);
 
     Mono<WebfluxDto> updateWebflux(WebfluxDto webfluxDto, String employeeId);
 
-    Mono<Void> deleteWebflux(String employeeId);
+    Mono<WebfluxDto> likeWebflux(String employeeId);
+
+    Mono<Boolean> deleteWebflux(String employeeId);
 }
\ No newline at end of file
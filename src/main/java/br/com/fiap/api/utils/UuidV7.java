@@ -0,0 +1,38 @@
+package br.com.fiap.api.utils;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * gera UUID versão 7 (RFC 9562): os 48 bits mais altos são o instante em
+ * milissegundos, então ids novos entram sempre no fim do índice da chave primária
+ * em vez de espalhados pela árvore como o UUID.randomUUID().
+ *
+ * <p>Os 12 bits seguintes funcionam como contador dentro do mesmo milissegundo,
+ * garantindo que ids gerados nesta JVM sejam estritamente crescentes.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+    private static final AtomicLong ULTIMO_INSTANTE = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID gerar() {
+        return gerar(System.currentTimeMillis());
+    }
+
+    static UUID gerar(long epochMillis) {
+        // 48 bits de milissegundos seguidos de 12 bits de sequência
+        long instante = ULTIMO_INSTANTE.updateAndGet(anterior -> Math.max(epochMillis << 12, anterior + 1));
+        long maisSignificativos = ((instante >>> 12) << 16) | 0x7000L | (instante & 0x0FFFL);
+        long menosSignificativos = (ALEATORIO.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(maisSignificativos, menosSignificativos);
+    }
+
+    public static long epochMillis(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
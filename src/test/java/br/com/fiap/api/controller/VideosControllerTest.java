@@ -4,27 +4,48 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
+import br.com.fiap.api.config.TempoLimiteExportacao;
+import br.com.fiap.api.dto.VideoCursor;
+import br.com.fiap.api.dto.VideoEmAltaResponse;
+import br.com.fiap.api.dto.VideoListaResponse;
+import br.com.fiap.api.dto.VideoLoteResponse;
+import br.com.fiap.api.dto.VideoMultiplosResponse;
+import br.com.fiap.api.dto.VideoPesquisaResponse;
 import br.com.fiap.api.dto.VideoRequest;
+import br.com.fiap.api.dto.VideoSugestaoResponse;
 import br.com.fiap.api.exception.MensagemNotFoundException;
+import br.com.fiap.api.exception.VersaoConflitanteException;
 import br.com.fiap.api.handler.GlobalExceptionHandler;
 import br.com.fiap.api.model.Videos;
+import br.com.fiap.api.search.AutocompletarTitulos;
 import br.com.fiap.api.service.VideosService;
 import br.com.fiap.api.utils.VideoHelper;
 import org.junit.jupiter.api.AfterEach;
@@ -32,11 +53,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -177,6 +204,33 @@ class VideosControllerTest {
         }
     }
 
+    @Nested
+    class CriarVideosEmLote {
+
+        @Test
+        void devePermitirCriarVideosEmLote() throws Exception {
+            var videoRequest = VideoHelper.gerarVideoRequest();
+            var resultado = VideoLoteResponse.builder()
+                    .indice(0)
+                    .id(UUID.randomUUID())
+                    .status(VideoLoteResponse.Status.CRIADO)
+                    .erros(Collections.emptyList())
+                    .build();
+            when(videoService.criarVideos(any()))
+                    .thenReturn(List.of(resultado));
+
+            mockMvc.perform(post("/videos/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(List.of(videoRequest))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].indice").value(0))
+                    .andExpect(jsonPath("$[0].id").value(resultado.getId().toString()))
+                    .andExpect(jsonPath("$[0].status").value("CRIADO"));
+            verify(videoService, times(1)).criarVideos(any());
+            verify(videoService, never()).criarVideo(any(Videos.class));
+        }
+    }
+
     @Nested
     class BuscarVideos {
 
@@ -202,6 +256,27 @@ class VideosControllerTest {
             verify(videoService, times(1)).buscarVideo(any(UUID.class));
         }
 
+        @Test
+        void deveRetornarNaoModificado_QuandoBuscarVideo_ComEtagAtual() throws Exception {
+            var video = VideoHelper.gerarVideoCompleto();
+            when(videoService.buscarVideo(any(UUID.class))).thenReturn(video);
+
+            var etag = mockMvc.perform(get("/videos/{id}", video.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "no-cache"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/videos/{id}", video.getId())
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            video.setGostei(video.getGostei() + 1);
+            mockMvc.perform(get("/videos/{id}", video.getId())
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isOk());
+        }
+
         @Test
         void deveGerarExcecao_QuandoBuscarVideo_IdNaoExistente()
                 throws Exception {
@@ -258,7 +333,7 @@ class VideosControllerTest {
             var video = VideoHelper.gerarVideo();
             video.setId(id);
 
-            when(videoService.alterarVideo(any(UUID.class), any(Videos.class)))
+            when(videoService.alterarVideo(any(UUID.class), any(Videos.class), any()))
                     .thenAnswer(i -> i.getArgument(1));
 
             mockMvc.perform(put("/videos/{id}", id)
@@ -273,7 +348,50 @@ class VideosControllerTest {
                     .andExpect(jsonPath("$.dataPublicacao").value(video.getDataPublicacao()))
                     .andExpect(jsonPath("$.gostei").value(video.getGostei()));
             verify(videoService, times(1))
-                    .alterarVideo(any(UUID.class), any(Videos.class));
+                    .alterarVideo(any(UUID.class), any(Videos.class), any());
+        }
+
+        @Test
+        void devePermitirAlterarVideo_ComIfMatchDaVersaoAtual() throws Exception {
+            var video = VideoHelper.gerarVideoCompleto();
+            video.setVersao(3L);
+            video.setGostei(7);
+            when(videoService.alterarVideo(any(UUID.class), any(Videos.class), any()))
+                    .thenReturn(video.toBuilder().versao(4L).build());
+
+            mockMvc.perform(put("/videos/{id}", video.getId())
+                            .header("If-Match", "\"" + video.getId() + "-3-5\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(video)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"" + video.getId() + "-4-7\""));
+            verify(videoService).alterarVideo(eq(video.getId()), any(Videos.class), eq(3L));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarVideo_VersaoDesatualizada() throws Exception {
+            var video = VideoHelper.gerarVideoCompleto();
+            when(videoService.alterarVideo(any(UUID.class), any(Videos.class), any()))
+                    .thenThrow(new VersaoConflitanteException("video alterado por outra requisição"));
+
+            mockMvc.perform(put("/videos/{id}", video.getId())
+                            .header("If-Match", "\"" + video.getId() + "-1-0\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(video)))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(content().string("video alterado por outra requisição"));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarVideo_IfMatchDeOutroVideo() throws Exception {
+            var video = VideoHelper.gerarVideoCompleto();
+
+            mockMvc.perform(put("/videos/{id}", video.getId())
+                            .header("If-Match", "\"" + UUID.randomUUID() + "-1-0\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(video)))
+                    .andExpect(status().isPreconditionFailed());
+            verify(videoService, never()).alterarVideo(any(UUID.class), any(Videos.class), any());
         }
 
         @Test
@@ -281,7 +399,7 @@ class VideosControllerTest {
             var id = "259bdc02-1ab5-11ee-be56-0242ac120002";
             var videoRequest = VideoHelper.gerarVideo();
 
-            when(videoService.alterarVideo(any(UUID.class), any(Videos.class)))
+            when(videoService.alterarVideo(any(UUID.class), any(Videos.class), any()))
                     .thenThrow(new MensagemNotFoundException("video não apresenta o ID correto"));
 
             mockMvc.perform(put("/videos/{id}", id)
@@ -317,7 +435,7 @@ class VideosControllerTest {
                             .content(xmlPayload))
 //          .andDo(print())
                     .andExpect(status().isUnsupportedMediaType());
-            verify(videoService, never()).alterarVideo(any(UUID.class), any(Videos.class));
+            verify(videoService, never()).alterarVideo(any(UUID.class), any(Videos.class), any());
         }
 
     }
@@ -450,9 +568,279 @@ class VideosControllerTest {
         }
     }
 
+    @Nested
+    class ListarResumoVideos {
+
+        @Test
+        void devePermitirListarResumoVideos() throws Exception {
+            var video = VideoListaResponse.builder()
+                    .id(UUID.randomUUID())
+                    .titulo("joe")
+                    .descricao("xpto test")
+                    .url("xpto")
+                    .dataPublicacao(LocalDateTime.now())
+                    .gostei(4)
+                    .build();
+            when(videoService.listarResumoVideos(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(video)));
+
+            mockMvc.perform(get("/videos/resumo")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(video.getId().toString()))
+                    .andExpect(jsonPath("$.content[0].titulo").value("joe"))
+                    .andExpect(jsonPath("$.content[0].dataPublicacao").exists())
+                    .andExpect(jsonPath("$.content[0].gostei").value(4))
+                    .andExpect(jsonPath("$.content[0].dataCriacao").doesNotExist());
+            verify(videoService, times(1)).listarResumoVideos(any(Pageable.class));
+            verify(videoService, never()).listarVideo(any(Pageable.class));
+        }
+    }
+
+    @Nested
+    class BuscarVariosVideos {
+
+        @Test
+        void devePermitirBuscarVideos_PorIds() throws Exception {
+            var video = VideoHelper.gerarVideo();
+            video.setId(UUID.randomUUID());
+            var inexistente = UUID.randomUUID();
+            when(videoService.buscarVideos(any()))
+                    .thenReturn(new VideoMultiplosResponse(List.of(video), List.of(inexistente)));
+
+            mockMvc.perform(get("/videos")
+                            .param("ids", video.getId() + "," + inexistente)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.videos[0].id").value(video.getId().toString()))
+                    .andExpect(jsonPath("$.naoEncontrados[0]").value(inexistente.toString()));
+            verify(videoService, times(1)).buscarVideos(List.of(video.getId(), inexistente));
+        }
+
+        @Test
+        void devePermitirBuscarVideos_PorLookup() throws Exception {
+            var id = UUID.randomUUID();
+            when(videoService.buscarVideos(any()))
+                    .thenReturn(new VideoMultiplosResponse(List.of(), List.of(id)));
+
+            mockMvc.perform(post("/videos/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(List.of(id.toString()))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.videos", empty()))
+                    .andExpect(jsonPath("$.naoEncontrados[0]").value(id.toString()));
+            verify(videoService, times(1)).buscarVideos(List.of(id));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarVideos_IdInvalido() throws Exception {
+            mockMvc.perform(get("/videos")
+                            .param("ids", "2")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("ID inválido"));
+            verify(videoService, never()).buscarVideos(any());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarVideos_IdsDemais() throws Exception {
+            var ids = Collections.nCopies(101, UUID.randomUUID().toString());
+
+            mockMvc.perform(post("/videos/lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(ids)))
+                    .andExpect(status().isBadRequest());
+            verify(videoService, never()).buscarVideos(any());
+        }
+    }
+
+    @Nested
+    class CorrigirVideos {
+
+        @Test
+        void devePermitirCorrigirVideo_ComMergePatch() throws Exception {
+            var video = VideoHelper.gerarVideoCompleto();
+            video.setDescricao("abcd");
+            when(videoService.corrigirVideo(any(UUID.class), any(VideoRequest.class)))
+                    .thenReturn(video);
+
+            mockMvc.perform(patch("/videos/{id}", video.getId())
+                            .contentType("application/merge-patch+json")
+                            .content("{\"descricao\": \"abcd\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.descricao").value("abcd"));
+            var alteracoes = ArgumentCaptor.forClass(VideoRequest.class);
+            verify(videoService).corrigirVideo(eq(video.getId()), alteracoes.capture());
+            assertThat(alteracoes.getValue())
+                    .isEqualTo(VideoRequest.builder().descricao("abcd").build());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoCorrigirVideo_CampoRemovidoOuDesconhecido() throws Exception {
+            mockMvc.perform(patch("/videos/{id}", UUID.randomUUID())
+                            .contentType("application/merge-patch+json")
+                            .content("{\"url\": null, \"gostei\": 10}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors", hasSize(2)))
+                    .andExpect(jsonPath("$.errors[0]").value("campo não pode ser alterado: gostei"))
+                    .andExpect(jsonPath("$.errors[1]").value("url não pode estar vazio"));
+            verify(videoService, never()).corrigirVideo(any(UUID.class), any(VideoRequest.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoCorrigirVideo_IdNaoExistente() throws Exception {
+            when(videoService.corrigirVideo(any(UUID.class), any(VideoRequest.class)))
+                    .thenThrow(new MensagemNotFoundException("video não encontrado"));
+
+            mockMvc.perform(patch("/videos/{id}", UUID.randomUUID())
+                            .contentType("application/merge-patch+json")
+                            .content("{\"titulo\": \"novo\"}"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    class ListarPublicados {
+
+        @Test
+        void devePermitirListarPublicados_NoIntervalo() throws Exception {
+            var video = VideoListaResponse.builder()
+                    .id(UUID.randomUUID())
+                    .titulo("joe")
+                    .dataPublicacao(LocalDateTime.of(2023, 7, 5, 10, 0))
+                    .build();
+            when(videoService.listarPublicados(any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+                    .thenReturn(List.of(video));
+
+            mockMvc.perform(get("/videos/publicados")
+                            .param("from", "2023-07-03T00:00:00")
+                            .param("to", "2023-07-10T00:00:00")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(video.getId().toString()));
+            verify(videoService, times(1)).listarPublicados(
+                    LocalDateTime.of(2023, 7, 3, 0, 0), LocalDateTime.of(2023, 7, 10, 0, 0), 100);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoIntervaloInvertido() throws Exception {
+            mockMvc.perform(get("/videos/publicados")
+                            .param("from", "2023-07-10T00:00:00")
+                            .param("to", "2023-07-03T00:00:00")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("intervalo inválido"));
+            verify(videoService, never())
+                    .listarPublicados(any(LocalDateTime.class), any(LocalDateTime.class), anyInt());
+        }
+    }
+
+    @Nested
+    class ListarEmAlta {
+
+        @Test
+        void devePermitirListarEmAlta_NaJanelaInformada() throws Exception {
+            var video = new VideoEmAltaResponse(UUID.randomUUID(), 42);
+            when(videoService.listarEmAlta(any(Duration.class), anyInt()))
+                    .thenReturn(List.of(video));
+
+            mockMvc.perform(get("/videos/trending")
+                            .param("window", "5m")
+                            .param("limit", "500")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(video.getId().toString()))
+                    .andExpect(jsonPath("$[0].gostei").value(42));
+            verify(videoService, times(1)).listarEmAlta(Duration.ofMinutes(5), 100);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoJanelaInvalida() throws Exception {
+            mockMvc.perform(get("/videos/trending")
+                            .param("window", "uma hora")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("janela inválida"));
+            verify(videoService, never()).listarEmAlta(any(Duration.class), anyInt());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoJanelaNaoSuportada() throws Exception {
+            when(videoService.listarEmAlta(any(Duration.class), anyInt()))
+                    .thenThrow(new IllegalArgumentException("janela não suportada: PT2H"));
+
+            mockMvc.perform(get("/videos/trending")
+                            .param("window", "2h")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("janela inválida"));
+        }
+    }
+
     @Nested
     class ListarVideos {
 
+        @Test
+        void deveOrdenarListagem_PeloCampoInformadoComIdComoDesempate() throws Exception {
+            when(videoService.listarVideo(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(Collections.emptyList()));
+
+            mockMvc.perform(get("/videos?sort=gostei,desc")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+
+            var pageable = ArgumentCaptor.forClass(Pageable.class);
+            verify(videoService).listarVideo(pageable.capture());
+            assertThat(pageable.getValue().getSort())
+                    .isEqualTo(Sort.by(Sort.Direction.DESC, "gostei").and(Sort.by(Sort.Direction.DESC, "id")));
+        }
+
+        @Test
+        void deveOrdenarListagem_AscendenteQuandoDirecaoOmitida() throws Exception {
+            when(videoService.listarVideo(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(Collections.emptyList()));
+
+            mockMvc.perform(get("/videos?sort=titulo")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+
+            var pageable = ArgumentCaptor.forClass(Pageable.class);
+            verify(videoService).listarVideo(pageable.capture());
+            assertThat(pageable.getValue().getSort())
+                    .isEqualTo(Sort.by("titulo", "id").ascending());
+        }
+
+        @Test
+        void deveRetornarNaoModificado_QuandoListarVideos_SemEscritaNoCatalogo() throws Exception {
+            when(videoService.versaoCatalogo()).thenReturn(7L);
+            when(videoService.listarVideo(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(Collections.emptyList()));
+
+            var etag = mockMvc.perform(get("/videos"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/videos").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified());
+            verify(videoService, times(1)).listarVideo(any(Pageable.class));
+
+            when(videoService.versaoCatalogo()).thenReturn(8L);
+            mockMvc.perform(get("/videos").header("If-None-Match", etag))
+                    .andExpect(status().isOk());
+            verify(videoService, times(2)).listarVideo(any(Pageable.class));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"descricao,asc", "gostei,lado", "gostei,desc,id", "id"})
+        void deveGerarExcecao_QuandoOrdenacaoInvalida(String sort) throws Exception {
+            mockMvc.perform(get("/videos").param("sort", sort)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("ordenação inválida"));
+            verify(videoService, never()).listarVideo(any(Pageable.class));
+        }
+
         @Test
         void devePermitirListarVideos() throws Exception {
             var video = VideoHelper.gerarVideoCompleto();
@@ -524,6 +912,152 @@ class VideosControllerTest {
         }
     }
 
+    @Nested
+    class PesquisarVideos {
+
+        @Test
+        void devePermitirPesquisarVideos() throws Exception {
+            var resultado = VideoPesquisaResponse.builder()
+                    .id(UUID.randomUUID())
+                    .titulo("joe")
+                    .descricao("xpto test")
+                    .url("xpto")
+                    .score(1.5)
+                    .build();
+            when(videoService.pesquisarVideos(any(String.class), anyInt()))
+                    .thenReturn(List.of(resultado));
+
+            mockMvc.perform(get("/videos/search?q=xpto")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(resultado.getId().toString()))
+                    .andExpect(jsonPath("$[0].titulo").value(resultado.getTitulo()))
+                    .andExpect(jsonPath("$[0].score").value(1.5));
+            verify(videoService, times(1)).pesquisarVideos("xpto", 10);
+            verify(videoService, never()).buscarVideo(any(UUID.class));
+        }
+
+        @Test
+        void deveLimitarResultados_QuandoPesquisarVideos() throws Exception {
+            when(videoService.pesquisarVideos(any(String.class), anyInt()))
+                    .thenReturn(Collections.emptyList());
+
+            mockMvc.perform(get("/videos/search?q=xpto&limit=5000")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", empty()));
+            verify(videoService, times(1)).pesquisarVideos("xpto", 100);
+        }
+    }
+
+    @Nested
+    class AutocompletarTitulo {
+
+        @Test
+        void devePermitirAutocompletarTitulo() throws Exception {
+            var sugestao = VideoSugestaoResponse.builder()
+                    .id(UUID.randomUUID())
+                    .titulo("joe")
+                    .gostei(3)
+                    .build();
+            when(videoService.autocompletarTitulo(any(String.class), anyInt()))
+                    .thenReturn(List.of(sugestao));
+
+            mockMvc.perform(get("/videos/autocomplete?prefix=jo")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(sugestao.getId().toString()))
+                    .andExpect(jsonPath("$[0].titulo").value("joe"))
+                    .andExpect(jsonPath("$[0].gostei").value(3));
+            verify(videoService, times(1)).autocompletarTitulo("jo", 5);
+        }
+
+        @Test
+        void deveLimitarSugestoes_QuandoAutocompletarTitulo() throws Exception {
+            when(videoService.autocompletarTitulo(any(String.class), anyInt()))
+                    .thenReturn(Collections.emptyList());
+
+            mockMvc.perform(get("/videos/autocomplete?prefix=jo&limit=500")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", empty()));
+            verify(videoService, times(1)).autocompletarTitulo("jo", AutocompletarTitulos.MAXIMO_SUGESTOES);
+        }
+    }
+
+    @Nested
+    class ExportarVideos {
+
+        @Test
+        void devePermitirExportarVideos() throws Exception {
+            doAnswer(i -> {
+                OutputStream saida = i.getArgument(0);
+                saida.write("{\"titulo\":\"joe\"}\n".getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(videoService).exportarVideos(any(OutputStream.class));
+
+            var resultado = mockMvc.perform(get("/videos/exportar"))
+                    .andExpect(request().asyncStarted())
+                    .andExpect(request().attribute(TempoLimiteExportacao.ATRIBUTO, true))
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(resultado))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string("{\"titulo\":\"joe\"}\n"));
+            verify(videoService, times(1)).exportarVideos(any(OutputStream.class));
+        }
+    }
+
+    @Nested
+    class ListarVideosPorCursor {
+
+        @Test
+        void devePermitirListarVideosPorCursor_PrimeiraPagina() throws Exception {
+            var video = VideoHelper.gerarVideoCompleto();
+            var slice = new SliceImpl<>(Collections.singletonList(video), PageRequest.of(0, 1), true);
+            when(videoService.listarVideo(isNull(), anyInt()))
+                    .thenReturn(slice);
+
+            mockMvc.perform(get("/videos?cursor=&size=1")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(video.getId().toString()))
+                    .andExpect(jsonPath("$.hasNext").value(true))
+                    .andExpect(jsonPath("$.nextCursor").value(
+                            new VideoCursor(video.getDataPublicacao(), video.getId()).codificar()));
+            verify(videoService, times(1)).listarVideo(isNull(), eq(1));
+            verify(videoService, never()).listarVideo(any(Pageable.class));
+        }
+
+        @Test
+        void devePermitirListarVideosPorCursor_ProximaPagina() throws Exception {
+            var video = VideoHelper.gerarVideoCompleto();
+            var cursor = new VideoCursor(video.getDataPublicacao(), video.getId());
+            var slice = new SliceImpl<Videos>(Collections.emptyList(), PageRequest.of(0, 10), false);
+            when(videoService.listarVideo(any(VideoCursor.class), anyInt()))
+                    .thenReturn(slice);
+
+            mockMvc.perform(get("/videos")
+                            .param("cursor", cursor.codificar())
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", empty()))
+                    .andExpect(jsonPath("$.hasNext").value(false))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+            verify(videoService, times(1)).listarVideo(eq(cursor), eq(10));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoListarVideosPorCursor_CursorInvalido() throws Exception {
+            mockMvc.perform(get("/videos?cursor=xpto")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("cursor inválido"));
+            verify(videoService, never()).listarVideo(any(VideoCursor.class), anyInt());
+        }
+    }
+
     public static String asJsonString(final Object obj) {
         try {
             return new ObjectMapper().writeValueAsString(obj);
@@ -0,0 +1,37 @@
+package br.com.fiap.api.mapper;
+
+import br.com.fiap.api.dto.WebfluxDto;
+import br.com.fiap.api.entity.Webflux;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeMapperTest {
+
+    private final LocalDateTime dataPublicacao = LocalDateTime.of(2023, 1, 1, 10, 0);
+    private final LocalDateTime dataCriacao = LocalDateTime.of(2023, 1, 2, 10, 0);
+    private final LocalDateTime dataAlteracao = LocalDateTime.of(2023, 1, 3, 10, 0);
+
+    @Test
+    void deveMapearEntidadeParaDto_CampoACampo() {
+        var webflux = new Webflux("a1", "joe", "xpto test", "xpto",
+                dataPublicacao, dataCriacao, dataAlteracao, 7);
+
+        var dto = EmployeeMapper.mapToEmployeeDto(webflux);
+
+        assertThat(dto).isEqualTo(new WebfluxDto("a1", "joe", "xpto test", "xpto",
+                dataPublicacao, dataCriacao, dataAlteracao, 7));
+    }
+
+    @Test
+    void deveMapearDtoParaEntidade_CampoACampo() {
+        var dto = new WebfluxDto("a1", "joe", "xpto test", "xpto",
+                dataPublicacao, dataCriacao, dataAlteracao, 7);
+
+        var webflux = EmployeeMapper.mapToEmployee(dto);
+
+        assertThat(webflux).usingRecursiveComparison().isEqualTo(dto);
+    }
+}
@@ -1,97 +1,234 @@
 package br.com.fiap.api.performance;
 
-import io.gatling.javaapi.core.ActionBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gatling.javaapi.core.Assertion;
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.OpenInjectionStep;
 import io.gatling.javaapi.core.ScenarioBuilder;
 import io.gatling.javaapi.core.Simulation;
 import io.gatling.javaapi.http.HttpProtocolBuilder;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
 import static io.gatling.javaapi.core.CoreDsl.*;
 import static io.gatling.javaapi.http.HttpDsl.http;
 import static io.gatling.javaapi.http.HttpDsl.status;
 
-
+/**
+ * carga sobre os endpoints reais de /videos e /api/webflux.
+ *
+ * <pre>
+ * mvn -Pperformance-test gatling:test -Dperfil=carga -Dusuarios=20 -Dduracao=120 -Dcatalogo=50000
+ * </pre>
+ *
+ * Parâmetros (propriedades de sistema):
+ * <ul>
+ *     <li>baseUrl: endereço da aplicação, padrão http://localhost:8080</li>
+ *     <li>perfil: fumaca (uma execução de cada cenário), carga (rampa, patamar e descida)
+ *     ou pico (todos os usuários do patamar concentrados na rampa)</li>
+ *     <li>usuarios, rampa, duracao: novos usuários por segundo no patamar e as durações em segundos</li>
+ *     <li>catalogo: videos criados via /videos/batch antes da carga, para que as páginas profundas
+ *     da listagem tenham conteúdo</li>
+ *     <li>paginaMaxima: maior página sorteada na listagem</li>
+ *     <li>p95, p99: limites em ms para todas as requisições; p95.&lt;requisicao&gt; e
+ *     p99.&lt;requisicao&gt; (espaços trocados por _, ex. -Dp99.listar_videos=800) sobrescrevem
+ *     um endpoint</li>
+ * </ul>
+ */
 public class ApiPerformanceSimulation extends Simulation {
 
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+    private static final String PERFIL = System.getProperty("perfil", "carga");
+    private static final double USUARIOS_POR_SEGUNDO = Double.parseDouble(System.getProperty("usuarios", "10"));
+    private static final Duration RAMPA = Duration.ofSeconds(Long.getLong("rampa", 10));
+    private static final Duration DURACAO = Duration.ofSeconds(Long.getLong("duracao", 60));
+    private static final int CATALOGO = Integer.getInteger("catalogo", 0);
+    private static final int PAGINA_MAXIMA = Integer.getInteger("paginaMaxima", 500);
+    private static final int P95 = Integer.getInteger("p95", 250);
+    private static final int P99 = Integer.getInteger("p99", 500);
+
+    private static final int TAMANHO_LOTE_CATALOGO = 500;
+
+    private static final String CRIAR_VIDEO = "criar video";
+    private static final String BUSCAR_VIDEO = "buscar video";
+    private static final String LISTAR_VIDEOS = "listar videos";
+    private static final String ATUALIZAR_VIDEO = "atualizar video";
+    private static final String APAGAR_VIDEO = "apagar video";
+    private static final String GOSTEI_VIDEO_POPULAR = "gostei video popular";
+    private static final String CRIAR_WEBFLUX = "criar webflux";
+    private static final String BUSCAR_WEBFLUX = "buscar webflux";
+    private static final String ATUALIZAR_WEBFLUX = "atualizar webflux";
+    private static final String APAGAR_WEBFLUX = "apagar webflux";
+
+    private static final List<String> REQUISICOES = List.of(
+            CRIAR_VIDEO, BUSCAR_VIDEO, LISTAR_VIDEOS, ATUALIZAR_VIDEO, APAGAR_VIDEO, GOSTEI_VIDEO_POPULAR,
+            CRIAR_WEBFLUX, BUSCAR_WEBFLUX, ATUALIZAR_WEBFLUX, APAGAR_WEBFLUX);
+
+    private static final String CORPO_VIDEO =
+            "{ \"titulo\": \"#{titulo}\", \"descricao\": \"#{descricao}\", \"url\": \"#{url}\" }";
+    private static final String CORPO_VIDEO_ATUALIZADO =
+            "{ \"id\": \"#{videoId}\", \"titulo\": \"#{titulo}\", \"descricao\": \"#{descricao} editada\", \"url\": \"#{url}\" }";
+    private static final String CORPO_WEBFLUX_ATUALIZADO =
+            "{ \"titulo\": \"#{titulo}\", \"descricao\": \"#{descricao} editada\", \"url\": \"#{url}\" }";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private volatile String idVideoPopular;
+
     private final HttpProtocolBuilder httpProtocol = http
-            .baseUrl("http://localhost:8080")
-            .header("Content-Type", "application/json");
+            .baseUrl(BASE_URL)
+            .header("Content-Type", "application/json")
+            .acceptHeader("application/json");
+
+    private final Iterator<Map<String, Object>> videos = Stream.generate(ApiPerformanceSimulation::video).iterator();
+
+    private final Iterator<Map<String, Object>> paginas = Stream.generate(() -> Map.<String, Object>of(
+            "pagina", ThreadLocalRandom.current().nextInt(PAGINA_MAXIMA + 1))).iterator();
 
-    ActionBuilder adicinarMensagemRequest = http("adicionar mensagem")
-            .post("/mensagens")
-            .body(StringBody("{ \"usuario\": \"user\", \"conteudo\": \"demo\" }"))
-            .check(status().is(201))
-            .check(jsonPath("$.id").saveAs("mensagemId"));
+    private final ChainBuilder crudVideo = feed(videos)
+            .exec(http(CRIAR_VIDEO)
+                    .post("/videos")
+                    .body(StringBody(CORPO_VIDEO))
+                    .check(status().is(201))
+                    .check(jsonPath("$.id").saveAs("videoId")))
+            .exec(http(BUSCAR_VIDEO)
+                    .get("/videos/#{videoId}")
+                    .check(status().is(200)))
+            .exec(http(ATUALIZAR_VIDEO)
+                    .put("/videos/#{videoId}")
+                    .body(StringBody(CORPO_VIDEO_ATUALIZADO))
+                    .check(status().is(200)))
+            .exec(http(APAGAR_VIDEO)
+                    .delete("/videos/#{videoId}")
+                    .check(status().is(200)));
 
-    ActionBuilder buscarMensagemRequest = http("buscar mensagem")
-            .get("/mensagens/#{mensagemId}")
-            .check(status().is(200));
+    private final ChainBuilder listarVideos = feed(paginas)
+            .exec(http(LISTAR_VIDEOS)
+                    .get("/videos")
+                    .queryParam("page", "#{pagina}")
+                    .queryParam("size", "10")
+                    .check(status().is(200)));
 
-    ActionBuilder listarMensagemRequest = http("listar mensagens")
-            .get("/mensagens")
-            .queryParam("page", "0")
-            .queryParam("size", "10")
-            .check(status().is(200));
+    private final ChainBuilder gosteiVideoPopular = exec(http(GOSTEI_VIDEO_POPULAR)
+            .put(session -> "/videos/" + idVideoPopular + "/gostei")
+            .check(status().is(200)));
 
-    ActionBuilder removerMensagemRequest = http("remover mensagem")
-            .delete("/mensagens/#{mensagemId}")
-            .check(status().is(200));
+    private final ChainBuilder crudWebflux = feed(videos)
+            .exec(http(CRIAR_WEBFLUX)
+                    .post("/api/webflux")
+                    .body(StringBody(CORPO_VIDEO))
+                    .check(status().is(201))
+                    .check(jsonPath("$.id").saveAs("webfluxId")))
+            .exec(http(BUSCAR_WEBFLUX)
+                    .get("/api/webflux/#{webfluxId}")
+                    .check(status().is(200)))
+            .exec(http(ATUALIZAR_WEBFLUX)
+                    .put("/api/webflux/#{webfluxId}")
+                    .body(StringBody(CORPO_WEBFLUX_ATUALIZADO))
+                    .check(status().is(200)))
+            .exec(http(APAGAR_WEBFLUX)
+                    .delete("/api/webflux/#{webfluxId}")
+                    .check(status().is(204)));
 
-    ScenarioBuilder cenarioAdicionarMensagem = scenario("Adicionar mensagem")
-            .exec(adicinarMensagemRequest);
+    private final ScenarioBuilder cenarioCrudVideo = scenario("CRUD de videos").exec(crudVideo);
 
-    ScenarioBuilder cenarioListarMensagem = scenario("Listar mensagens")
-            .exec(listarMensagemRequest);
+    private final ScenarioBuilder cenarioListarVideos = scenario("Listar videos em páginas profundas").exec(listarVideos);
 
-    ScenarioBuilder cenarioAdicionarBuscarMensagem = scenario("Adicionar e Buscar mensagem")
-            .exec(adicinarMensagemRequest)
-            .exec(buscarMensagemRequest);
+    private final ScenarioBuilder cenarioGosteiVideoPopular = scenario("Rajada de gostei num video").exec(gosteiVideoPopular);
 
-    ScenarioBuilder cenarioAdicionarRemoverMensagem = scenario("Adicionar e Remover mensagem")
-            .exec(adicinarMensagemRequest)
-            .exec(removerMensagemRequest);
+    private final ScenarioBuilder cenarioCrudWebflux = scenario("CRUD reativo de webflux").exec(crudWebflux);
 
     {
         setUp(
-                cenarioAdicionarMensagem.injectOpen(
-                        rampUsersPerSec(1)
-                                .to(10)
-                                .during(Duration.ofSeconds(10)),
-                        constantUsersPerSec(10)
-                                .during(Duration.ofSeconds(60)),
-                        rampUsersPerSec(10)
-                                .to(1)
-                                .during(Duration.ofSeconds(10))),
-                cenarioAdicionarRemoverMensagem.injectOpen(
-                        rampUsersPerSec(1)
-                                .to(30)
-                                .during(Duration.ofSeconds(10)),
-                        constantUsersPerSec(30)
-                                .during(Duration.ofSeconds(60)),
-                        rampUsersPerSec(30)
-                                .to(1)
-                                .during(Duration.ofSeconds(10))),
-                cenarioAdicionarBuscarMensagem.injectOpen(
-                        rampUsersPerSec(1)
-                                .to(30)
-                                .during(Duration.ofSeconds(10)),
-                        constantUsersPerSec(30)
-                                .during(Duration.ofSeconds(60)),
-                        rampUsersPerSec(30)
-                                .to(1)
-                                .during(Duration.ofSeconds(10))),
-                cenarioListarMensagem.injectOpen(
-                        rampUsersPerSec(1)
-                                .to(100)
-                                .during(Duration.ofSeconds(10)),
-                        constantUsersPerSec(100)
-                                .during(Duration.ofSeconds(60)),
-                        rampUsersPerSec(100)
-                                .to(1)
-                                .during(Duration.ofSeconds(10))))
+                cenarioCrudVideo.injectOpen(injecao(1)),
+                cenarioListarVideos.injectOpen(injecao(5)),
+                cenarioGosteiVideoPopular.injectOpen(injecao(10)),
+                cenarioCrudWebflux.injectOpen(injecao(1)))
                 .protocols(httpProtocol)
-                .assertions(
-                        global().responseTime().max().lt(50),
-                        global().failedRequests().count().is(0L));
+                .assertions(assertions());
+    }
+
+    /**
+     * cria o video disputado pela rajada de gostei e, se pedido, o catálogo para a listagem.
+     */
+    @Override
+    public void before() {
+        try {
+            var corpo = objectMapper.writeValueAsString(video());
+            var resposta = enviar("/videos", corpo);
+            idVideoPopular = objectMapper.readTree(resposta).get("id").asText();
+            for (int criados = 0; criados < CATALOGO; criados += TAMANHO_LOTE_CATALOGO) {
+                var lote = IntStream.range(0, Math.min(TAMANHO_LOTE_CATALOGO, CATALOGO - criados))
+                        .mapToObj(i -> video())
+                        .collect(Collectors.toList());
+                enviar("/videos/batch", objectMapper.writeValueAsString(lote));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("não foi possível preparar os dados da simulação", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("preparação da simulação interrompida", e);
+        }
+    }
+
+    private String enviar(String caminho, String corpo) throws IOException, InterruptedException {
+        var requisicao = HttpRequest.newBuilder(URI.create(BASE_URL + caminho))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        var resposta = httpClient.send(requisicao, HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() >= 300) {
+            throw new IllegalStateException("POST " + caminho + " retornou " + resposta.statusCode());
+        }
+        return resposta.body();
+    }
+
+    private static OpenInjectionStep[] injecao(double peso) {
+        var usuarios = USUARIOS_POR_SEGUNDO * peso;
+        return switch (PERFIL) {
+            case "fumaca" -> new OpenInjectionStep[]{atOnceUsers(1)};
+            case "carga" -> new OpenInjectionStep[]{
+                    rampUsersPerSec(1).to(usuarios).during(RAMPA),
+                    constantUsersPerSec(usuarios).during(DURACAO),
+                    rampUsersPerSec(usuarios).to(1).during(RAMPA)};
+            case "pico" -> new OpenInjectionStep[]{
+                    stressPeakUsers((int) Math.ceil(usuarios * DURACAO.toSeconds())).during(RAMPA)};
+            default -> throw new IllegalArgumentException("perfil de injeção desconhecido: " + PERFIL);
+        };
+    }
+
+    private static List<Assertion> assertions() {
+        var assertions = new ArrayList<Assertion>();
+        assertions.add(global().failedRequests().percent().lt(1.0));
+        for (String requisicao : REQUISICOES) {
+            var chave = requisicao.replace(' ', '_');
+            assertions.add(details(requisicao).responseTime().percentile(95.0)
+                    .lt(Integer.getInteger("p95." + chave, P95)));
+            assertions.add(details(requisicao).responseTime().percentile(99.0)
+                    .lt(Integer.getInteger("p99." + chave, P99)));
+        }
+        return assertions;
+    }
+
+    private static Map<String, Object> video() {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        return Map.of(
+                "titulo", "video " + sufixo,
+                "descricao", "descricao do video " + sufixo,
+                "url", "https://videos.exemplo.com/" + sufixo);
     }
 }
@@ -0,0 +1,145 @@
+package br.com.fiap.api.performance;
+
+import br.com.fiap.api.utils.UuidV7;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * latência das consultas de Videos que dependem dos índices declarados na entidade
+ * (titulo + data_publicacao, data_publicacao desc, gostei desc), medida para tamanhos
+ * crescentes da tabela, primeiro sem e depois com os índices.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=br.com.fiap.api.performance.IndiceConsultaBenchmark \
+ *     -Dbenchmark.tamanhos=10000,100000,1000000
+ * </pre>
+ *
+ * Por padrão usa um H2 em arquivo dentro de target/; -Dbenchmark.url, -Dbenchmark.usuario
+ * e -Dbenchmark.senha apontam para outro banco. -Dbenchmark.repeticoes controla quantas
+ * vezes cada consulta roda em cada medição.
+ */
+public class IndiceConsultaBenchmark {
+
+    private static final int[] TAMANHOS = Arrays.stream(System.getProperty("benchmark.tamanhos", "10000,100000,1000000")
+            .split(",")).mapToInt(tamanho -> Integer.parseInt(tamanho.trim())).toArray();
+    private static final int REPETICOES = Integer.getInteger("benchmark.repeticoes", 200);
+    private static final int LOTE = 1_000;
+    private static final int TITULOS_DISTINTOS = 1_000;
+    private static final String URL = System.getProperty("benchmark.url", "jdbc:h2:file:./target/indice-benchmark");
+    private static final String USUARIO = System.getProperty("benchmark.usuario", "sa");
+    private static final String SENHA = System.getProperty("benchmark.senha", "");
+    private static final String TABELA = "videos_indice_benchmark";
+
+    private static final List<String> INDICES = List.of(
+            "CREATE INDEX idx_bench_titulo_data_publicacao ON " + TABELA + " (titulo, data_publicacao)",
+            "CREATE INDEX idx_bench_data_publicacao_id ON " + TABELA + " (data_publicacao DESC, id DESC)",
+            "CREATE INDEX idx_bench_gostei_id ON " + TABELA + " (gostei DESC, id DESC)");
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    public static void main(String[] args) throws SQLException {
+        try (var conexao = DriverManager.getConnection(URL, USUARIO, SENHA)) {
+            conexao.setAutoCommit(false);
+            System.out.printf("%-10s %-8s %16s %16s %16s%n",
+                    "linhas", "índices", "titulo+data µs", "recentes µs", "mais gostei µs");
+            for (int tamanho : TAMANHOS) {
+                popular(conexao, tamanho);
+                medir(conexao, tamanho, "não");
+                criarIndices(conexao);
+                medir(conexao, tamanho, "sim");
+            }
+        }
+    }
+
+    private static void popular(Connection conexao, int linhas) throws SQLException {
+        try (var comando = conexao.createStatement()) {
+            comando.execute("DROP TABLE IF EXISTS " + TABELA);
+            comando.execute("CREATE TABLE " + TABELA + " (id UUID PRIMARY KEY, titulo VARCHAR(255), "
+                    + "descricao VARCHAR(255), url VARCHAR(255), data_publicacao TIMESTAMP, gostei INT)");
+        }
+        try (var insercao = conexao.prepareStatement("INSERT INTO " + TABELA
+                + " (id, titulo, descricao, url, data_publicacao, gostei) VALUES (?, ?, ?, ?, ?, ?)")) {
+            var aleatorio = ThreadLocalRandom.current();
+            for (int i = 1; i <= linhas; i++) {
+                insercao.setObject(1, UuidV7.gerar());
+                insercao.setString(2, "titulo " + (i % TITULOS_DISTINTOS));
+                insercao.setString(3, "descricao do video " + i);
+                insercao.setString(4, "https://videos.exemplo/" + i);
+                insercao.setTimestamp(5, Timestamp.valueOf(INICIO.plusMinutes(aleatorio.nextInt(1_000_000))));
+                insercao.setInt(6, aleatorio.nextInt(100_000));
+                insercao.addBatch();
+                if (i % LOTE == 0) {
+                    insercao.executeBatch();
+                }
+            }
+            insercao.executeBatch();
+        }
+        conexao.commit();
+    }
+
+    private static void criarIndices(Connection conexao) throws SQLException {
+        try (var comando = conexao.createStatement()) {
+            for (String indice : INDICES) {
+                comando.execute(indice);
+            }
+        }
+        conexao.commit();
+    }
+
+    private static void medir(Connection conexao, int linhas, String comIndices) throws SQLException {
+        try (var porTitulo = conexao.prepareStatement("SELECT id FROM " + TABELA
+                + " WHERE titulo = ? AND data_publicacao >= ? ORDER BY data_publicacao");
+             var recentes = conexao.prepareStatement("SELECT id FROM " + TABELA
+                     + " ORDER BY data_publicacao DESC, id DESC LIMIT 10");
+             var maisGostei = conexao.prepareStatement("SELECT id FROM " + TABELA
+                     + " ORDER BY gostei DESC, id DESC LIMIT 10")) {
+            var aleatorio = ThreadLocalRandom.current();
+            var tituloMedio = micros(() -> {
+                porTitulo.setString(1, "titulo " + aleatorio.nextInt(TITULOS_DISTINTOS));
+                porTitulo.setTimestamp(2, Timestamp.valueOf(INICIO.plusMinutes(aleatorio.nextInt(1_000_000))));
+                return porTitulo;
+            });
+            var recentesMedio = micros(() -> recentes);
+            var maisGosteiMedio = micros(() -> maisGostei);
+            System.out.printf("%-10d %-8s %16.1f %16.1f %16.1f%n",
+                    linhas, comIndices, tituloMedio, recentesMedio, maisGosteiMedio);
+        }
+    }
+
+    /**
+     * tempo médio, em microssegundos, de executar a consulta e ler todas as linhas,
+     * depois de algumas execuções de aquecimento.
+     */
+    private static double micros(Consulta consulta) throws SQLException {
+        for (int i = 0; i < REPETICOES / 10; i++) {
+            executar(consulta.preparar());
+        }
+        var inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            executar(consulta.preparar());
+        }
+        return (System.nanoTime() - inicio) / 1_000.0 / REPETICOES;
+    }
+
+    private static void executar(PreparedStatement consulta) throws SQLException {
+        try (var resultado = consulta.executeQuery()) {
+            while (resultado.next()) {
+                resultado.getObject(1);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Consulta {
+        PreparedStatement preparar() throws SQLException;
+    }
+}
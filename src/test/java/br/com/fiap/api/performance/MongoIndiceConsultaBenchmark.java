@@ -0,0 +1,155 @@
+package br.com.fiap.api.performance;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * o equivalente de {@link IndiceConsultaBenchmark} para a coleção videos do Mongo: as
+ * consultas que dependem dos índices declarados em Webflux (titulo + dataPublicacao,
+ * dataPublicacao desc, gostei desc), primeiro sem e depois com os índices, e os caminhos
+ * de EmployeeRepository e EmployeeServiceImpl que usam o _id (a página por cursor de
+ * findByIdGreaterThanOrderByIdAsc e o findAndModify do gostei), que não dependem deles
+ * e servem de referência para cada tamanho.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=br.com.fiap.api.performance.MongoIndiceConsultaBenchmark \
+ *     -Dbenchmark.tamanhos=10000,100000,1000000
+ * </pre>
+ *
+ * Por padrão usa mongodb://localhost:27017 e o banco indice-benchmark; -Dbenchmark.mongo
+ * aponta para outro servidor. -Dbenchmark.repeticoes controla quantas vezes cada
+ * consulta roda em cada medição.
+ */
+public class MongoIndiceConsultaBenchmark {
+
+    private static final int[] TAMANHOS = Arrays.stream(System.getProperty("benchmark.tamanhos", "10000,100000,1000000")
+            .split(",")).mapToInt(tamanho -> Integer.parseInt(tamanho.trim())).toArray();
+    private static final int REPETICOES = Integer.getInteger("benchmark.repeticoes", 200);
+    private static final int LOTE = 1_000;
+    private static final int TITULOS_DISTINTOS = 1_000;
+    private static final int TAMANHO_PAGINA = 10;
+    private static final String URI = System.getProperty("benchmark.mongo", "mongodb://localhost:27017");
+    private static final String BANCO = "indice-benchmark";
+    private static final String COLECAO = "videos_indice_benchmark";
+
+    private static final List<IndexModel> INDICES = List.of(
+            new IndexModel(Indexes.ascending("titulo", "dataPublicacao"),
+                    new IndexOptions().name("idx_bench_titulo_data_publicacao")),
+            new IndexModel(Indexes.descending("dataPublicacao"), new IndexOptions().name("idx_bench_data_publicacao")),
+            new IndexModel(Indexes.descending("gostei"), new IndexOptions().name("idx_bench_gostei")));
+
+    private static final Instant INICIO = Instant.parse("2020-01-01T00:00:00Z");
+
+    public static void main(String[] args) {
+        try (var cliente = MongoClients.create(URI)) {
+            var colecao = cliente.getDatabase(BANCO).getCollection(COLECAO);
+            System.out.printf("%-10s %-8s %16s %16s %16s %16s %16s%n", "documentos", "índices",
+                    "titulo+data µs", "recentes µs", "mais gostei µs", "cursor _id µs", "findAndModify µs");
+            for (int tamanho : TAMANHOS) {
+                var ids = popular(colecao, tamanho);
+                medir(colecao, ids, tamanho, "não");
+                bloquear(colecao.createIndexes(INDICES));
+                medir(colecao, ids, tamanho, "sim");
+            }
+            bloquear(colecao.drop());
+        }
+    }
+
+    private static List<ObjectId> popular(MongoCollection<Document> colecao, int documentos) {
+        bloquear(colecao.drop());
+        var ids = new ArrayList<ObjectId>(documentos);
+        var aleatorio = ThreadLocalRandom.current();
+        var lote = new ArrayList<Document>(LOTE);
+        for (int i = 1; i <= documentos; i++) {
+            var id = new ObjectId();
+            ids.add(id);
+            lote.add(new Document("_id", id)
+                    .append("titulo", "titulo " + (i % TITULOS_DISTINTOS))
+                    .append("descricao", "descricao do video " + i)
+                    .append("url", "https://videos.exemplo/" + i)
+                    .append("dataPublicacao", data(aleatorio.nextInt(1_000_000)))
+                    .append("gostei", aleatorio.nextInt(100_000)));
+            if (lote.size() == LOTE) {
+                bloquear(colecao.insertMany(lote));
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            bloquear(colecao.insertMany(lote));
+        }
+        return ids;
+    }
+
+    private static void medir(MongoCollection<Document> colecao, List<ObjectId> ids, int documentos, String comIndices) {
+        var aleatorio = ThreadLocalRandom.current();
+        var tituloMedio = micros(() -> colecao
+                .find(Filters.and(
+                        Filters.eq("titulo", "titulo " + aleatorio.nextInt(TITULOS_DISTINTOS)),
+                        Filters.gte("dataPublicacao", data(aleatorio.nextInt(1_000_000)))))
+                .sort(Sorts.ascending("dataPublicacao")));
+        var recentesMedio = micros(() -> colecao.find()
+                .sort(Sorts.descending("dataPublicacao"))
+                .limit(TAMANHO_PAGINA));
+        var maisGosteiMedio = micros(() -> colecao.find()
+                .sort(Sorts.descending("gostei"))
+                .limit(TAMANHO_PAGINA));
+        // a mesma consulta que findByIdGreaterThanOrderByIdAsc gera para uma página por cursor
+        var cursorMedio = micros(() -> colecao
+                .find(Filters.gt("_id", ids.get(aleatorio.nextInt(ids.size()))))
+                .sort(Sorts.ascending("_id"))
+                .limit(TAMANHO_PAGINA));
+        // o $inc de likeWebflux, devolvendo o documento já alterado
+        var findAndModifyMedio = micros(() -> colecao.findOneAndUpdate(
+                Filters.eq("_id", ids.get(aleatorio.nextInt(ids.size()))),
+                Updates.inc("gostei", 1),
+                new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER)));
+        System.out.printf("%-10d %-8s %16.1f %16.1f %16.1f %16.1f %16.1f%n", documentos, comIndices,
+                tituloMedio, recentesMedio, maisGosteiMedio, cursorMedio, findAndModifyMedio);
+    }
+
+    /**
+     * tempo médio, em microssegundos, de executar a operação e ler todos os documentos,
+     * depois de algumas execuções de aquecimento.
+     */
+    private static double micros(Supplier<Publisher<?>> operacao) {
+        for (int i = 0; i < REPETICOES / 10; i++) {
+            Flux.from(operacao.get()).blockLast();
+        }
+        var inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            Flux.from(operacao.get()).blockLast();
+        }
+        return (System.nanoTime() - inicio) / 1_000.0 / REPETICOES;
+    }
+
+    private static void bloquear(Publisher<?> operacao) {
+        Mono.from(operacao).block();
+    }
+
+    private static Date data(long minutos) {
+        return Date.from(INICIO.plus(minutos, ChronoUnit.MINUTES));
+    }
+}
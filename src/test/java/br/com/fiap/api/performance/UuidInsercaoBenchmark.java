@@ -0,0 +1,88 @@
+package br.com.fiap.api.performance;
+
+import br.com.fiap.api.utils.UuidV7;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * compara a inserção de chaves UUID v4 (aleatórias) e v7 (ordenadas pelo tempo)
+ * numa tabela com a mesma forma de Videos: vazão de INSERT e tamanho final em disco.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=br.com.fiap.api.performance.UuidInsercaoBenchmark \
+ *     -Dbenchmark.linhas=1000000
+ * </pre>
+ *
+ * Por padrão usa um H2 em arquivo dentro de target/; -Dbenchmark.url, -Dbenchmark.usuario
+ * e -Dbenchmark.senha apontam para outro banco (PostgreSQL, com o driver no classpath).
+ * No H2 o tamanho informado é o da tabela com seus índices; no PostgreSQL, só o do
+ * índice da chave primária.
+ */
+public class UuidInsercaoBenchmark {
+
+    private static final int LINHAS = Integer.getInteger("benchmark.linhas", 1_000_000);
+    private static final int LOTE = 1_000;
+    private static final String URL = System.getProperty("benchmark.url", "jdbc:h2:file:./target/uuid-benchmark");
+    private static final String USUARIO = System.getProperty("benchmark.usuario", "sa");
+    private static final String SENHA = System.getProperty("benchmark.senha", "");
+
+    public static void main(String[] args) throws SQLException {
+        try (var conexao = DriverManager.getConnection(URL, USUARIO, SENHA)) {
+            conexao.setAutoCommit(false);
+            executar(conexao, "videos_uuid_v4", UUID::randomUUID);
+            executar(conexao, "videos_uuid_v7", UuidV7::gerar);
+        }
+    }
+
+    private static void executar(Connection conexao, String tabela, Supplier<UUID> gerador) throws SQLException {
+        try (var comando = conexao.createStatement()) {
+            comando.execute("DROP TABLE IF EXISTS " + tabela);
+            comando.execute("CREATE TABLE " + tabela + " (id UUID PRIMARY KEY, titulo VARCHAR(255), "
+                    + "descricao VARCHAR(255), url VARCHAR(255), data_publicacao TIMESTAMP, gostei INT)");
+        }
+        conexao.commit();
+
+        var inicio = System.nanoTime();
+        try (var insercao = conexao.prepareStatement("INSERT INTO " + tabela
+                + " (id, titulo, descricao, url, data_publicacao, gostei) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, 0)")) {
+            for (int i = 1; i <= LINHAS; i++) {
+                insercao.setObject(1, gerador.get());
+                insercao.setString(2, "titulo " + i);
+                insercao.setString(3, "descricao do video " + i);
+                insercao.setString(4, "https://videos.exemplo/" + i);
+                insercao.addBatch();
+                if (i % LOTE == 0) {
+                    insercao.executeBatch();
+                    conexao.commit();
+                }
+            }
+            insercao.executeBatch();
+            conexao.commit();
+        }
+        var segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        System.out.printf("%s: %d linhas em %.1fs (%.0f linhas/s), tamanho em disco %s%n",
+                tabela, LINHAS, segundos, LINHAS / segundos, tamanho(conexao, tabela));
+    }
+
+    private static String tamanho(Connection conexao, String tabela) throws SQLException {
+        var banco = conexao.getMetaData().getDatabaseProductName();
+        String consulta;
+        if (banco.startsWith("H2")) {
+            consulta = "SELECT DISK_SPACE_USED('" + tabela.toUpperCase() + "')";
+        } else if (banco.startsWith("PostgreSQL")) {
+            consulta = "SELECT pg_relation_size('" + tabela + "_pkey')";
+        } else {
+            return "indisponível para " + banco;
+        }
+        try (var comando = conexao.createStatement(); var resultado = comando.executeQuery(consulta)) {
+            resultado.next();
+            return String.format("%.1f MB", resultado.getLong(1) / (1024.0 * 1024.0));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package br.com.fiap.api.repository;
 import static br.com.fiap.api.utils.VideoHelper.registrarVideo;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import br.com.fiap.api.model.Videos;
@@ -11,7 +12,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 
 @SpringBootTest
@@ -21,6 +25,8 @@ class VideosRepositoryIT {
 
     @Autowired
     private VideoRepository videoRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     @Test
     void devePermitirCriarTabela() {
@@ -96,6 +102,52 @@ class VideosRepositoryIT {
                 .isEmpty();
     }
 
+    @Test
+    void devePermitirApagarVideo_EmUmaInstrucao() {
+        // Arrange
+        var id = registrarVideo().getId();
+        // Act
+        var apagados = videoRepository.apagarVideo(id);
+        // Assert
+        assertThat(apagados).isEqualTo(1);
+        assertThat(videoRepository.apagarVideo(id)).isZero();
+    }
+
+    @Test
+    void devePermitirAlterarVideo_EmUmaInstrucao() {
+        // Arrange
+        var video = registrarVideo();
+        // a linha devolvida pelo UPDATE não substitui uma entidade já gerenciada
+        entityManager.flush();
+        entityManager.clear();
+        // Act
+        var alterado = videoRepository.alterarVideo(video.getId(), "abcd", "nova", LocalDateTime.now());
+        // Assert
+        assertThat(alterado).hasValueSatisfying(gravado -> {
+            assertThat(gravado.getDescricao()).isEqualTo("abcd");
+            assertThat(gravado.getTitulo()).isEqualTo(video.getTitulo());
+            assertThat(gravado.getVersao()).isEqualTo(video.getVersao() + 1);
+        });
+        assertThat(videoRepository.alterarVideo(UUID.randomUUID(), "abcd", "nova", LocalDateTime.now())).isEmpty();
+    }
+
+    @Test
+    void devePermitirAlterarVideo_SomenteNaVersaoInformada() {
+        // Arrange
+        var video = registrarVideo();
+        // a linha devolvida pelo UPDATE não substitui uma entidade já gerenciada
+        entityManager.flush();
+        entityManager.clear();
+        // Act
+        var desatualizado = videoRepository.alterarVideo(video.getId(), "abcd", "nova", LocalDateTime.now(),
+                video.getVersao() + 1);
+        var alterado = videoRepository.alterarVideo(video.getId(), "abcd", "nova", LocalDateTime.now(),
+                video.getVersao());
+        // Assert
+        assertThat(desatualizado).isEmpty();
+        assertThat(alterado).map(Videos::getVersao).hasValue(video.getVersao() + 1);
+    }
+
     @Test
     void devePermitirListarVideo() {
         // Act
@@ -105,6 +157,36 @@ class VideosRepositoryIT {
                 .hasSize(5);
     }
 
+    @Test
+    void devePermitirListarVideoPorCursor() {
+        // Act
+        var primeiraPagina = videoRepository.listarVideosPorCursor(PageRequest.of(0, 3));
+        var ultimo = primeiraPagina.getContent().get(2);
+        var segundaPagina = videoRepository.listarVideosPorCursor(
+                ultimo.getDataPublicacao(), ultimo.getId(), PageRequest.of(0, 3));
+        // Assert
+        assertThat(primeiraPagina.hasNext()).isTrue();
+        assertThat(segundaPagina.hasNext()).isFalse();
+        assertThat(segundaPagina.getContent())
+                .hasSize(2)
+                .doesNotContainAnyElementsOf(primeiraPagina.getContent());
+    }
+
+    @Test
+    void devePermitirListarResumoVideos() {
+        // Act
+        var resultado = videoRepository.listarResumoVideos(
+                PageRequest.of(0, 3, Sort.by("dataPublicacao").descending()));
+        // Assert
+        assertThat(resultado.getTotalElements()).isEqualTo(5);
+        assertThat(resultado.getContent())
+                .hasSize(3)
+                .allSatisfy(video -> {
+                    assertThat(video.getId()).isNotNull();
+                    assertThat(video.getTitulo()).isEqualTo("joe");
+                });
+    }
+
     private Videos gerarVideo() {
         return Videos.builder()
                 .titulo("joe")
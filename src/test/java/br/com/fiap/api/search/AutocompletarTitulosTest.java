@@ -0,0 +1,163 @@
+package br.com.fiap.api.search;
+
+import br.com.fiap.api.dto.VideoSugestaoResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AutocompletarTitulosTest {
+
+    private AutocompletarTitulos autocompletarTitulos;
+
+    @BeforeEach
+    void setUp() {
+        autocompletarTitulos = new AutocompletarTitulos();
+    }
+
+    @Test
+    void deveSugerirTitulos_OrdenadosPorGostei() {
+        var pouco = adicionar("Java básico", 1);
+        var muito = adicionar("Java avançado", 30);
+        var medio = adicionar("JavaScript", 10);
+        adicionar("Python", 100);
+
+        assertThat(autocompletarTitulos.sugerir("jav", 10))
+                .extracting(VideoSugestaoResponse::getId)
+                .containsExactly(muito, medio, pouco);
+    }
+
+    @Test
+    void deveSugerirTitulos_IgnorandoAcentosEMaiusculas() {
+        var id = adicionar("Programação funcional", 0);
+
+        assertThat(autocompletarTitulos.sugerir("PROGRAMACAO F", 5))
+                .extracting(VideoSugestaoResponse::getTitulo)
+                .containsExactly("Programação funcional");
+        assertThat(autocompletarTitulos.sugerir("programação", 5))
+                .extracting(VideoSugestaoResponse::getId)
+                .containsExactly(id);
+    }
+
+    @Test
+    void deveLimitarSugestoes() {
+        for (int i = 0; i < AutocompletarTitulos.MAXIMO_SUGESTOES + 5; i++) {
+            adicionar("video " + i, i);
+        }
+
+        assertThat(autocompletarTitulos.sugerir("vid", 3))
+                .extracting(VideoSugestaoResponse::getGostei)
+                .containsExactly(14L, 13L, 12L);
+        assertThat(autocompletarTitulos.sugerir("vid", 100)).hasSize(AutocompletarTitulos.MAXIMO_SUGESTOES);
+    }
+
+    @Test
+    void deveRetornarVazio_QuandoPrefixoNaoEncontrado() {
+        adicionar("Futebol", 1);
+
+        assertThat(autocompletarTitulos.sugerir("vôlei", 5)).isEmpty();
+        assertThat(autocompletarTitulos.sugerir("  ", 5)).isEmpty();
+    }
+
+    @Test
+    void deveReordenarSugestoes_QuandoSomarGostei() {
+        var primeiro = adicionar("Receita de bolo", 5);
+        var segundo = adicionar("Receita de pão", 3);
+
+        autocompletarTitulos.somarGostei(segundo, 4);
+
+        assertThat(autocompletarTitulos.sugerir("receita", 5))
+                .extracting(VideoSugestaoResponse::getId, VideoSugestaoResponse::getGostei)
+                .containsExactly(
+                        tuple(segundo, 7L),
+                        tuple(primeiro, 5L));
+    }
+
+    @Test
+    void devePromoverVideoForaDoTopo_QuandoSomarGostei() {
+        for (int i = 0; i < AutocompletarTitulos.MAXIMO_SUGESTOES; i++) {
+            adicionar("tema " + i, 10);
+        }
+        var escondido = adicionar("tema extra", 1);
+        assertThat(autocompletarTitulos.sugerir("tema", 10))
+                .extracting(VideoSugestaoResponse::getId)
+                .doesNotContain(escondido);
+
+        autocompletarTitulos.somarGostei(escondido, 50);
+
+        assertThat(autocompletarTitulos.sugerir("tema", 1))
+                .extracting(VideoSugestaoResponse::getId)
+                .containsExactly(escondido);
+    }
+
+    @Test
+    void deveRecuperarSugestoes_QuandoVideoRemovido() {
+        var ids = new UUID[AutocompletarTitulos.MAXIMO_SUGESTOES + 1];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = adicionar("aula " + i, i);
+        }
+
+        autocompletarTitulos.remover(ids[ids.length - 1]);
+
+        assertThat(autocompletarTitulos.sugerir("aula", 10))
+                .extracting(VideoSugestaoResponse::getId)
+                .hasSize(AutocompletarTitulos.MAXIMO_SUGESTOES)
+                .contains(ids[0])
+                .doesNotContain(ids[ids.length - 1]);
+        assertThat(autocompletarTitulos.tamanho()).isEqualTo(AutocompletarTitulos.MAXIMO_SUGESTOES);
+    }
+
+    @Test
+    void deveSubstituirTitulo_QuandoVideoAdicionadoNovamente() {
+        var id = adicionar("Titulo antigo", 2);
+
+        autocompletarTitulos.adicionar(id, "Novo titulo", 2);
+
+        assertThat(autocompletarTitulos.sugerir("titulo", 5)).isEmpty();
+        assertThat(autocompletarTitulos.sugerir("novo", 5))
+                .extracting(VideoSugestaoResponse::getId)
+                .containsExactly(id);
+        assertThat(autocompletarTitulos.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void deveCriarNosSoOndeTitulosSeSeparam() {
+        var java = adicionar("Java", 3);
+        var javali = adicionar("Javali", 2);
+        var javascript = adicionar("JavaScript", 1);
+
+        assertThat(autocompletarTitulos.nos()).isEqualTo(3);
+        assertThat(autocompletarTitulos.sugerir("jav", 5))
+                .extracting(VideoSugestaoResponse::getId)
+                .containsExactly(java, javali, javascript);
+        assertThat(autocompletarTitulos.sugerir("javas", 5))
+                .extracting(VideoSugestaoResponse::getId)
+                .containsExactly(javascript);
+        assertThat(autocompletarTitulos.sugerir("javax", 5)).isEmpty();
+    }
+
+    @Test
+    void deveFundirNos_QuandoVideosRemovidos() {
+        var java = adicionar("Java", 3);
+        var javali = adicionar("Javali", 2);
+        var javascript = adicionar("JavaScript", 1);
+
+        autocompletarTitulos.remover(java);
+        autocompletarTitulos.remover(javali);
+
+        assertThat(autocompletarTitulos.nos()).isEqualTo(1);
+        assertThat(autocompletarTitulos.sugerir("javasc", 5))
+                .extracting(VideoSugestaoResponse::getId)
+                .containsExactly(javascript);
+        assertThat(autocompletarTitulos.sugerir("javal", 5)).isEmpty();
+    }
+
+    private UUID adicionar(String titulo, long gostei) {
+        var id = UUID.randomUUID();
+        autocompletarTitulos.adicionar(id, titulo, gostei);
+        return id;
+    }
+}
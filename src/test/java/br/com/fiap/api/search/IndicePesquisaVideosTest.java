@@ -0,0 +1,107 @@
+package br.com.fiap.api.search;
+
+import br.com.fiap.api.dto.VideoPesquisaResponse;
+import br.com.fiap.api.model.Videos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndicePesquisaVideosTest {
+
+    private IndicePesquisaVideos indicePesquisaVideos;
+
+    @BeforeEach
+    void setUp() {
+        indicePesquisaVideos = new IndicePesquisaVideos();
+    }
+
+    @Test
+    void devePermitirPesquisarVideo_PorTituloEDescricao() {
+        var receita = indexar("Receita de pão caseiro", "como fazer pão em casa");
+        var viagem = indexar("Viagem ao Nordeste", "praias e comidas típicas");
+
+        assertThat(indicePesquisaVideos.pesquisar("pão", 10))
+                .extracting(VideoPesquisaResponse::getId)
+                .containsExactly(receita.getId());
+        assertThat(indicePesquisaVideos.pesquisar("praias", 10))
+                .extracting(VideoPesquisaResponse::getId)
+                .containsExactly(viagem.getId());
+    }
+
+    @Test
+    void devePermitirPesquisarVideo_IgnorandoAcentosEMaiusculas() {
+        var video = indexar("Programação em Java", "introdução");
+
+        assertThat(indicePesquisaVideos.pesquisar("PROGRAMACAO", 10))
+                .extracting(VideoPesquisaResponse::getId)
+                .containsExactly(video.getId());
+    }
+
+    @Test
+    void deveOrdenarResultados_PorRelevancia() {
+        var naDescricao = indexar("Aula de Spring", "exemplo com java");
+        var noTitulo = indexar("Java para iniciantes", "primeiros passos");
+        indexar("Receita de bolo", "bolo de chocolate");
+
+        var resultados = indicePesquisaVideos.pesquisar("java", 10);
+
+        assertThat(resultados)
+                .extracting(VideoPesquisaResponse::getId)
+                .containsExactly(noTitulo.getId(), naDescricao.getId());
+        assertThat(resultados.get(0).getScore()).isGreaterThan(resultados.get(1).getScore());
+    }
+
+    @Test
+    void deveLimitarResultados_QuandoPesquisarVideo() {
+        for (int i = 0; i < 5; i++) {
+            indexar("video " + i, "xpto");
+        }
+
+        assertThat(indicePesquisaVideos.pesquisar("xpto", 3)).hasSize(3);
+    }
+
+    @Test
+    void deveAtualizarIndice_QuandoVideoAlterado() {
+        var video = indexar("Futebol", "melhores gols");
+        video.setDescricao("melhores defesas");
+
+        indicePesquisaVideos.indexar(video);
+
+        assertThat(indicePesquisaVideos.pesquisar("gols", 10)).isEmpty();
+        assertThat(indicePesquisaVideos.pesquisar("defesas", 10))
+                .extracting(VideoPesquisaResponse::getDescricao)
+                .containsExactly("melhores defesas");
+        assertThat(indicePesquisaVideos.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void deveRemoverVideoDoIndice() {
+        var video = indexar("Futebol", "melhores gols");
+
+        indicePesquisaVideos.remover(video.getId());
+
+        assertThat(indicePesquisaVideos.pesquisar("futebol", 10)).isEmpty();
+        assertThat(indicePesquisaVideos.tamanho()).isZero();
+    }
+
+    @Test
+    void deveRetornarVazio_QuandoConsultaSemTermos() {
+        indexar("Futebol", "melhores gols");
+
+        assertThat(indicePesquisaVideos.pesquisar(" !? ", 10)).isEmpty();
+    }
+
+    private Videos indexar(String titulo, String descricao) {
+        var video = Videos.builder()
+                .id(UUID.randomUUID())
+                .titulo(titulo)
+                .descricao(descricao)
+                .url("xpto")
+                .build();
+        indicePesquisaVideos.indexar(video);
+        return video;
+    }
+}
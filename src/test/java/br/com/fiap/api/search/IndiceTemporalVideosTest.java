@@ -0,0 +1,143 @@
+package br.com.fiap.api.search;
+
+import br.com.fiap.api.dto.VideoListaResponse;
+import br.com.fiap.api.model.Videos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceTemporalVideosTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2023, 7, 10, 12, 0);
+
+    private MutableClock clock;
+    private IndiceTemporalVideos indiceTemporalVideos;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(AGORA.toInstant(ZoneOffset.UTC));
+        indiceTemporalVideos = new IndiceTemporalVideos(Duration.ofDays(7), clock);
+    }
+
+    @Test
+    void deveListarPublicadosNaJanela_DoMaisRecenteParaOMaisAntigo() {
+        var segunda = adicionar(AGORA.minusDays(1));
+        var primeira = adicionar(AGORA.minusDays(2));
+        adicionar(AGORA.minusDays(5));
+
+        var videos = indiceTemporalVideos.publicados(AGORA.minusDays(3), AGORA, 10);
+
+        assertThat(videos)
+                .extracting(VideoListaResponse::getId)
+                .containsExactly(segunda.getId(), primeira.getId());
+    }
+
+    @Test
+    void deveIncluirLimitesDaJanela_EDesempatarPeloId() {
+        var mesmoInstante = AGORA.minusDays(1);
+        var a = adicionar(mesmoInstante);
+        var b = adicionar(mesmoInstante);
+
+        assertThat(indiceTemporalVideos.publicados(mesmoInstante, mesmoInstante, 10))
+                .extracting(VideoListaResponse::getId)
+                .containsExactlyInAnyOrder(a.getId(), b.getId());
+        assertThat(indiceTemporalVideos.publicados(mesmoInstante, mesmoInstante, 1)).hasSize(1);
+    }
+
+    @Test
+    void deveIgnorarPublicacoes_ForaDoHorizonte() {
+        adicionar(AGORA.minusDays(8));
+
+        assertThat(indiceTemporalVideos.tamanho()).isZero();
+        assertThat(indiceTemporalVideos.cobre(AGORA.minusDays(6))).isTrue();
+        assertThat(indiceTemporalVideos.cobre(AGORA.minusDays(8))).isFalse();
+    }
+
+    @Test
+    void deveDescartarPublicacoes_QuandoSaemDoHorizonte() {
+        adicionar(AGORA.minusDays(6));
+        var recente = adicionar(AGORA.minusDays(1));
+        clock.avancar(Duration.ofDays(2));
+
+        indiceTemporalVideos.descartarForaDoHorizonte();
+
+        assertThat(indiceTemporalVideos.tamanho()).isEqualTo(1);
+        assertThat(indiceTemporalVideos.publicados(AGORA.minusDays(7), AGORA, 10))
+                .extracting(VideoListaResponse::getId)
+                .containsExactly(recente.getId());
+    }
+
+    @Test
+    void deveAtualizarVideo_QuandoAlteradoOuCurtido() {
+        var video = adicionar(AGORA.minusDays(1));
+        video.setDescricao("nova descricao");
+        indiceTemporalVideos.adicionar(video);
+        indiceTemporalVideos.somarGostei(video.getId(), 3);
+
+        assertThat(indiceTemporalVideos.publicados(AGORA.minusDays(2), AGORA, 10))
+                .singleElement()
+                .satisfies(resposta -> {
+                    assertThat(resposta.getDescricao()).isEqualTo("nova descricao");
+                    assertThat(resposta.getGostei()).isEqualTo(3);
+                });
+        assertThat(indiceTemporalVideos.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void deveRemoverVideo() {
+        var video = adicionar(AGORA.minusDays(1));
+
+        indiceTemporalVideos.remover(video.getId());
+
+        assertThat(indiceTemporalVideos.publicados(AGORA.minusDays(2), AGORA, 10)).isEmpty();
+    }
+
+    private Videos adicionar(LocalDateTime dataPublicacao) {
+        var video = Videos.builder()
+                .id(UUID.randomUUID())
+                .titulo("joe")
+                .descricao("xpto test")
+                .url("xpto")
+                .dataPublicacao(dataPublicacao)
+                .build();
+        indiceTemporalVideos.adicionar(video);
+        return video;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instante;
+
+        private MutableClock(Instant instante) {
+            this.instante = instante;
+        }
+
+        void avancar(Duration duracao) {
+            instante = instante.plus(duracao);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instante;
+        }
+    }
+}
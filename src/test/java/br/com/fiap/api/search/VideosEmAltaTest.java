@@ -0,0 +1,162 @@
+package br.com.fiap.api.search;
+
+import br.com.fiap.api.dto.VideoEmAltaResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class VideosEmAltaTest {
+
+    private static final Duration CINCO_MINUTOS = Duration.ofMinutes(5);
+    private static final Duration UMA_HORA = Duration.ofHours(1);
+
+    private MutableClock clock;
+    private VideosEmAlta videosEmAlta;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2023-07-10T12:00:00Z"));
+        videosEmAlta = new VideosEmAlta(List.of(UMA_HORA, CINCO_MINUTOS), 2, clock);
+    }
+
+    @Test
+    void deveOrdenarPorGosteiNaJanela_EDesempatarPeloId() {
+        var a = new UUID(0, 1);
+        var b = new UUID(0, 2);
+        var c = new UUID(0, 3);
+        registrar(c, 1);
+        registrar(b, 2);
+        registrar(a, 2);
+
+        videosEmAlta.atualizarRankings();
+
+        assertThat(videosEmAlta.emAlta(UMA_HORA, 10))
+                .extracting(VideoEmAltaResponse::getId, VideoEmAltaResponse::getGostei)
+                .containsExactly(tuple(a, 2L), tuple(b, 2L));
+        assertThat(videosEmAlta.emAlta(UMA_HORA, 1))
+                .extracting(VideoEmAltaResponse::getId)
+                .containsExactly(a);
+    }
+
+    @Test
+    void deveContarSoOsMinutosDentroDeCadaJanela() {
+        var antigo = UUID.randomUUID();
+        var recente = UUID.randomUUID();
+        registrar(antigo, 3);
+        clock.avancar(Duration.ofMinutes(10));
+        registrar(recente, 1);
+
+        videosEmAlta.atualizarRankings();
+
+        assertThat(videosEmAlta.emAlta(CINCO_MINUTOS, 10))
+                .extracting(VideoEmAltaResponse::getId, VideoEmAltaResponse::getGostei)
+                .containsExactly(tuple(recente, 1L));
+        assertThat(videosEmAlta.emAlta(UMA_HORA, 10))
+                .extracting(VideoEmAltaResponse::getId, VideoEmAltaResponse::getGostei)
+                .containsExactly(tuple(antigo, 3L), tuple(recente, 1L));
+    }
+
+    @Test
+    void deveReaproveitarBalde_QuandoAnelDaAVolta() {
+        var id = UUID.randomUUID();
+        registrar(id, 5);
+        clock.avancar(UMA_HORA);
+        registrar(id, 1);
+
+        videosEmAlta.atualizarRankings();
+
+        assertThat(videosEmAlta.emAlta(UMA_HORA, 10))
+                .extracting(VideoEmAltaResponse::getGostei)
+                .containsExactly(1L);
+    }
+
+    @Test
+    void deveDescartarVideo_QuandoSemGosteiNaUltimaHora() {
+        registrar(UUID.randomUUID(), 1);
+        clock.avancar(UMA_HORA);
+
+        videosEmAlta.atualizarRankings();
+
+        assertThat(videosEmAlta.tamanho()).isZero();
+        assertThat(videosEmAlta.emAlta(UMA_HORA, 10)).isEmpty();
+    }
+
+    @Test
+    void deveContarTodosOsGostei_QuandoRegistradosEmParalelo() throws InterruptedException {
+        var id = UUID.randomUUID();
+        var threads = 8;
+        var porThread = 1_000;
+        var inicio = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        IntStream.range(0, threads).forEach(i -> executor.submit(() -> {
+            inicio.await();
+            IntStream.range(0, porThread).forEach(j -> videosEmAlta.registrar(id));
+            return null;
+        }));
+
+        inicio.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        videosEmAlta.atualizarRankings();
+
+        assertThat(videosEmAlta.emAlta(CINCO_MINUTOS, 1))
+                .extracting(VideoEmAltaResponse::getGostei)
+                .containsExactly((long) threads * porThread);
+    }
+
+    @Test
+    void deveRecusarJanelaNaoConfigurada() {
+        assertThat(videosEmAlta.emAlta(CINCO_MINUTOS, 10)).isEmpty();
+        assertThatThrownBy(() -> videosEmAlta.emAlta(Duration.ofMinutes(15), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new VideosEmAlta(List.of(Duration.ofHours(2)), 10, clock))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void registrar(UUID id, int gostei) {
+        IntStream.range(0, gostei).forEach(i -> videosEmAlta.registrar(id));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instante;
+
+        private MutableClock(Instant instante) {
+            this.instante = instante;
+        }
+
+        void avancar(Duration duracao) {
+            instante = instante.plus(duracao);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instante;
+        }
+    }
+}
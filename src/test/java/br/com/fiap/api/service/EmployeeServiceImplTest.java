@@ -0,0 +1,297 @@
+package br.com.fiap.api.service;
+
+import br.com.fiap.api.dto.WebfluxDto;
+import br.com.fiap.api.entity.Webflux;
+import br.com.fiap.api.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmployeeServiceImplTest {
+
+    private EmployeeServiceImpl employeeService;
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    AutoCloseable openMocks;
+
+    @BeforeEach
+    void setUp() {
+        openMocks = MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        employeeService = new EmployeeServiceImpl(employeeRepository, mongoTemplate,
+                new ObjectMapper().findAndRegisterModules(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        openMocks.close();
+    }
+
+    @Nested
+    class ListarWebflux {
+
+        @Test
+        void devePermitirListarPrimeiraPagina() {
+            when(employeeRepository.findAllByOrderByIdAsc(any(Pageable.class)))
+                    .thenReturn(Flux.just(gerarWebflux("a1"), gerarWebflux("a2")));
+
+            StepVerifier.create(employeeService.getAllEmployees(null, 2))
+                    .expectNextMatches(dto -> dto.getId().equals("a1"))
+                    .expectNextMatches(dto -> dto.getId().equals("a2"))
+                    .verifyComplete();
+            verify(employeeRepository).findAllByOrderByIdAsc(PageRequest.of(0, 2));
+            verify(employeeRepository, never()).findAll();
+        }
+
+        @Test
+        void devePermitirListarPaginaSeguinte_APartirDoCursor() {
+            when(employeeRepository.findByIdGreaterThanOrderByIdAsc(anyString(), any(Pageable.class)))
+                    .thenReturn(Flux.just(gerarWebflux("a3")));
+
+            StepVerifier.create(employeeService.getAllEmployees("a2", 10))
+                    .expectNextMatches(dto -> dto.getId().equals("a3"))
+                    .verifyComplete();
+            verify(employeeRepository).findByIdGreaterThanOrderByIdAsc("a2", PageRequest.of(0, 10));
+        }
+
+        @Test
+        void deveEntregarStreamConformeDemanda() {
+            when(employeeRepository.findAllByOrderByIdAsc(any(Pageable.class)))
+                    .thenReturn(Flux.range(0, 1000).map(i -> gerarWebflux("id" + i)));
+
+            StepVerifier.create(employeeService.streamAllEmployees(null), 10)
+                    .expectNextCount(10)
+                    .thenRequest(990)
+                    .expectNextCount(990)
+                    .verifyComplete();
+            verify(employeeRepository).findAllByOrderByIdAsc(Pageable.unpaged());
+        }
+    }
+
+    @Nested
+    class BuscarWebflux {
+
+        @Test
+        void deveCompartilharBusca_QuandoBuscasSimultaneasPeloMesmoId() {
+            Sinks.One<Webflux> documento = Sinks.one();
+            when(employeeRepository.findById("a1"))
+                    .thenReturn(documento.asMono());
+
+            var primeira = employeeService.getWebflux("a1").toFuture();
+            var segunda = employeeService.getWebflux("a1").toFuture();
+            documento.tryEmitValue(gerarWebflux("a1"));
+
+            assertThat(primeira.join().getId()).isEqualTo("a1");
+            assertThat(segunda.join().getId()).isEqualTo("a1");
+            verify(employeeRepository, times(1)).findById("a1");
+        }
+
+        @Test
+        void deveBuscarDeNovo_QuandoBuscaAnteriorTerminou() {
+            when(employeeRepository.findById("a1"))
+                    .thenReturn(Mono.just(gerarWebflux("a1")));
+
+            StepVerifier.create(employeeService.getWebflux("a1"))
+                    .expectNextCount(1)
+                    .verifyComplete();
+            StepVerifier.create(employeeService.getWebflux("a1"))
+                    .expectNextCount(1)
+                    .verifyComplete();
+            verify(employeeRepository, times(2)).findById("a1");
+        }
+    }
+
+    @Nested
+    class AlterarWebflux {
+
+        @Test
+        void deveAlterarSomenteCamposInformados_EmUmaOperacao() {
+            var atualizado = gerarWebflux("a1");
+            atualizado.setDescricao("nova descricao");
+            when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                    any(FindAndModifyOptions.class), eq(Webflux.class)))
+                    .thenReturn(Mono.just(atualizado));
+            var dto = WebfluxDto.builder().descricao("nova descricao").build();
+
+            StepVerifier.create(employeeService.updateWebflux(dto, "a1"))
+                    .expectNextMatches(resultado -> resultado.getDescricao().equals("nova descricao"))
+                    .verifyComplete();
+
+            var update = ArgumentCaptor.forClass(UpdateDefinition.class);
+            verify(mongoTemplate).findAndModify(any(Query.class), update.capture(),
+                    any(FindAndModifyOptions.class), eq(Webflux.class));
+            var set = update.getValue().getUpdateObject().get("$set", Document.class);
+            assertThat(set).containsKeys("descricao", "dataAlteracao")
+                    .doesNotContainKeys("titulo", "url");
+            verify(employeeRepository, never()).findById(anyString());
+            verify(employeeRepository, never()).save(any(Webflux.class));
+        }
+
+        @Test
+        void deveIncrementarGostei_ComInc() {
+            var curtido = gerarWebflux("a1");
+            curtido.setGostei(5);
+            when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                    any(FindAndModifyOptions.class), eq(Webflux.class)))
+                    .thenReturn(Mono.just(curtido));
+
+            StepVerifier.create(employeeService.likeWebflux("a1"))
+                    .expectNextMatches(resultado -> resultado.getGostei() == 5)
+                    .verifyComplete();
+
+            var update = ArgumentCaptor.forClass(UpdateDefinition.class);
+            verify(mongoTemplate).findAndModify(any(Query.class), update.capture(),
+                    any(FindAndModifyOptions.class), eq(Webflux.class));
+            assertThat(update.getValue().getUpdateObject().get("$inc", Document.class))
+                    .containsEntry("gostei", 1);
+        }
+
+        @Test
+        void deveMedirTempo_AteOFimDoMono() {
+            when(mongoTemplate.remove(any(Query.class), eq(Webflux.class)))
+                    .thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+
+            var apagar = employeeService.deleteWebflux("a1");
+
+            assertThat(meterRegistry.find(EmployeeServiceImpl.METRIC_SERVICE).timer()).isNull();
+            StepVerifier.create(apagar)
+                    .expectNext(true)
+                    .verifyComplete();
+            var timer = meterRegistry.get(EmployeeServiceImpl.METRIC_SERVICE)
+                    .tag("method", "deleteWebflux")
+                    .tag("exception", "none")
+                    .timer();
+            assertThat(timer.count()).isEqualTo(1);
+        }
+
+        @Test
+        void deveInformarSeApagou() {
+            when(mongoTemplate.remove(any(Query.class), eq(Webflux.class)))
+                    .thenReturn(Mono.just(DeleteResult.acknowledged(1)))
+                    .thenReturn(Mono.just(DeleteResult.acknowledged(0)));
+
+            StepVerifier.create(employeeService.deleteWebflux("a1"))
+                    .expectNext(true)
+                    .verifyComplete();
+            StepVerifier.create(employeeService.deleteWebflux("a1"))
+                    .expectNext(false)
+                    .verifyComplete();
+            verify(employeeRepository, never()).deleteById(anyString());
+        }
+    }
+
+    @Nested
+    class ImportarWebflux {
+
+        private ReactiveBulkOperations bulkOperations;
+
+        @BeforeEach
+        void setUp() {
+            bulkOperations = mock(ReactiveBulkOperations.class);
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Webflux.class))
+                    .thenReturn(bulkOperations);
+            when(bulkOperations.insert(anyList()))
+                    .thenReturn(bulkOperations);
+        }
+
+        @Test
+        void deveImportarNdjson_EmLotesComProgresso() {
+            var resultado = mock(BulkWriteResult.class);
+            when(resultado.getInsertedCount()).thenReturn(2);
+            when(bulkOperations.execute()).thenReturn(Mono.just(resultado));
+            var ndjson = """
+                    {"titulo":"joe","descricao":"xpto test","url":"xpto"}
+
+                    {"titulo":"ana","descricao":"xpto test","url":"xpto"}
+                    """;
+
+            StepVerifier.create(employeeService.bulkWebflux(corpo(ndjson)))
+                    .expectNextMatches(progresso -> progresso.getLote() == 1
+                            && progresso.getDocumentos() == 2
+                            && progresso.getInseridos() == 2
+                            && progresso.getFalhas() == 0
+                            && progresso.getTotalInseridos() == 2)
+                    .verifyComplete();
+
+            var documentos = ArgumentCaptor.forClass(List.class);
+            verify(bulkOperations).insert(documentos.capture());
+            assertThat(documentos.getValue())
+                    .extracting("titulo")
+                    .containsExactly("joe", "ana");
+            verify(employeeRepository, never()).save(any(Webflux.class));
+        }
+
+        @Test
+        void deveContarFalhas_QuandoLinhaInvalida() {
+            var resultado = mock(BulkWriteResult.class);
+            when(resultado.getInsertedCount()).thenReturn(1);
+            when(bulkOperations.execute()).thenReturn(Mono.just(resultado));
+            var ndjson = """
+                    {"titulo":"joe","descricao":"xpto test","url":"xpto"}
+                    {"titulo":
+                    """;
+
+            StepVerifier.create(employeeService.bulkWebflux(corpo(ndjson)))
+                    .expectNextMatches(progresso -> progresso.getInseridos() == 1 && progresso.getFalhas() == 1)
+                    .verifyComplete();
+        }
+
+        @Test
+        void deveContinuarImportacao_QuandoLoteFalhar() {
+            when(bulkOperations.execute()).thenReturn(Mono.error(new IllegalStateException("mongo indisponível")));
+
+            StepVerifier.create(employeeService.bulkWebflux(corpo("{\"titulo\":\"joe\"}\n")))
+                    .expectNextMatches(progresso -> progresso.getInseridos() == 0 && progresso.getFalhas() == 1)
+                    .verifyComplete();
+        }
+
+        private ByteArrayInputStream corpo(String ndjson) {
+            return new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Webflux gerarWebflux(String id) {
+        var timestamp = LocalDateTime.now();
+        return new Webflux(id, "joe", "xpto test", "xpto", timestamp, timestamp, timestamp, 0);
+    }
+}
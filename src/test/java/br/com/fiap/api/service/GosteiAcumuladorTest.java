@@ -0,0 +1,146 @@
+package br.com.fiap.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GosteiAcumuladorTest {
+
+    private GosteiAcumulador gosteiAcumulador;
+
+    @BeforeEach
+    void setUp() {
+        gosteiAcumulador = new GosteiAcumulador();
+    }
+
+    @Test
+    void devePermitirIncrementarGostei_Concorrentemente() throws Exception {
+        var id = UUID.randomUUID();
+        var threads = 8;
+        var cliquesPorThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        var inicio = new CountDownLatch(1);
+
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                inicio.await();
+                for (int j = 0; j < cliquesPorThread; j++) {
+                    gosteiAcumulador.incrementar(id);
+                }
+                return null;
+            });
+        }
+        inicio.countDown();
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(gosteiAcumulador.pendentes(id)).isEqualTo((long) threads * cliquesPorThread);
+    }
+
+    @Test
+    void devePermitirDrenarGostei() {
+        var id = UUID.randomUUID();
+        gosteiAcumulador.incrementar(id);
+        gosteiAcumulador.incrementar(id);
+
+        var deltas = gosteiAcumulador.drenar();
+
+        assertThat(deltas).containsEntry(id, 2L);
+        assertThat(gosteiAcumulador.pendentes(id)).isEqualTo(2);
+        assertThat(gosteiAcumulador.drenar()).isEmpty();
+
+        gosteiAcumulador.confirmar(id, 2);
+
+        assertThat(gosteiAcumulador.pendentes(id)).isZero();
+    }
+
+    @Test
+    void devePermitirDevolverGostei_QuandoGravacaoFalhar() {
+        var id = UUID.randomUUID();
+        gosteiAcumulador.incrementar(id);
+        gosteiAcumulador.drenar();
+
+        gosteiAcumulador.devolver(id, 1);
+
+        assertThat(gosteiAcumulador.pendentes(id)).isEqualTo(1);
+        assertThat(gosteiAcumulador.drenar()).containsEntry(id, 1L);
+    }
+
+    @Test
+    void devePermitirDescartarGostei() {
+        var id = UUID.randomUUID();
+        gosteiAcumulador.incrementar(id);
+
+        gosteiAcumulador.descartar(id);
+
+        assertThat(gosteiAcumulador.pendentes(id)).isZero();
+        assertThat(gosteiAcumulador.drenar()).isEmpty();
+    }
+
+    @Test
+    void deveRemoverVideo_QuandoGosteiConfirmadosSemNovosCliques() {
+        var id = UUID.randomUUID();
+        gosteiAcumulador.incrementar(id);
+        gosteiAcumulador.drenar();
+
+        gosteiAcumulador.confirmar(id, 1);
+
+        assertThat(gosteiAcumulador.tamanho()).isZero();
+        assertThat(gosteiAcumulador.pendentes(id)).isZero();
+    }
+
+    @Test
+    void deveManterVideo_QuandoCliqueChegaDuranteGravacao() {
+        var id = UUID.randomUUID();
+        gosteiAcumulador.incrementar(id);
+        gosteiAcumulador.drenar();
+        gosteiAcumulador.incrementar(id);
+
+        gosteiAcumulador.confirmar(id, 1);
+
+        assertThat(gosteiAcumulador.tamanho()).isEqualTo(1);
+        assertThat(gosteiAcumulador.drenar()).containsEntry(id, 1L);
+    }
+
+    @Test
+    void naoDevePerderGostei_QuandoVideoRemovidoDuranteCliquesConcorrentes() throws Exception {
+        var id = UUID.randomUUID();
+        var threads = 4;
+        var cliquesPorThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        var inicio = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                inicio.await();
+                for (int j = 0; j < cliquesPorThread; j++) {
+                    gosteiAcumulador.incrementar(id);
+                }
+                return null;
+            });
+        }
+        inicio.countDown();
+        executor.shutdown();
+
+        long gravados = 0;
+        while (!executor.isTerminated()) {
+            gravados += drenarEConfirmar();
+        }
+        gravados += drenarEConfirmar();
+
+        assertThat(gravados).isEqualTo((long) threads * cliquesPorThread);
+        assertThat(gosteiAcumulador.tamanho()).isZero();
+    }
+
+    private long drenarEConfirmar() {
+        var deltas = gosteiAcumulador.drenar();
+        deltas.forEach(gosteiAcumulador::confirmar);
+        return deltas.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
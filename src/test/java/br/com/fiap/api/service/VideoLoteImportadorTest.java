@@ -0,0 +1,105 @@
+package br.com.fiap.api.service;
+
+import br.com.fiap.api.dto.VideoLoteResponse;
+import br.com.fiap.api.model.Videos;
+import br.com.fiap.api.utils.VideoHelper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class VideoLoteImportadorTest {
+
+    private VideoLoteImportador videoLoteImportador;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    AutoCloseable openMocks;
+
+    @BeforeEach
+    void setUp() {
+        openMocks = MockitoAnnotations.openMocks(this);
+        videoLoteImportador = new VideoLoteImportador(entityManager,
+                new TransactionTemplate(transactionManager),
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        openMocks.close();
+    }
+
+    @Test
+    void devePermitirImportarVideos() {
+        var videos = Arrays.asList(VideoHelper.gerarVideo(), VideoHelper.gerarVideo());
+
+        var resultados = videoLoteImportador.importar(videos);
+
+        assertThat(resultados)
+                .hasSize(2)
+                .allSatisfy(resultado -> {
+                    assertThat(resultado.getStatus()).isEqualTo(VideoLoteResponse.Status.CRIADO);
+                    assertThat(resultado.getId()).isNotNull();
+                    assertThat(resultado.getErros()).isEmpty();
+                });
+        verify(entityManager, times(2)).persist(any(Videos.class));
+        verify(entityManager, times(1)).flush();
+    }
+
+    @Test
+    void devePermitirImportarVideos_EmBlocos() {
+        var videos = new ArrayList<Videos>();
+        for (int i = 0; i < VideoLoteImportador.TAMANHO_BLOCO + 1; i++) {
+            videos.add(VideoHelper.gerarVideo());
+        }
+
+        var resultados = videoLoteImportador.importar(videos);
+
+        assertThat(resultados).hasSize(VideoLoteImportador.TAMANHO_BLOCO + 1);
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void deveRejeitarVideoInvalido_QuandoImportarVideos() {
+        var invalido = Videos.builder().titulo("").descricao("xpto").url("xpto").build();
+        var videos = Arrays.asList(VideoHelper.gerarVideo(), invalido);
+
+        var resultados = videoLoteImportador.importar(videos);
+
+        assertThat(resultados.get(0).getStatus()).isEqualTo(VideoLoteResponse.Status.CRIADO);
+        assertThat(resultados.get(1).getStatus()).isEqualTo(VideoLoteResponse.Status.INVALIDO);
+        assertThat(resultados.get(1).getId()).isNull();
+        assertThat(resultados.get(1).getErros()).containsExactly("título não pode estar vazio");
+        verify(entityManager, times(1)).persist(any(Videos.class));
+    }
+
+    @Test
+    void deveMarcarFalha_QuandoGravacaoDoBlocoFalhar() {
+        doThrow(new IllegalStateException("banco indisponível"))
+                .when(entityManager).flush();
+
+        var resultados = videoLoteImportador.importar(List.of(VideoHelper.gerarVideo()));
+
+        assertThat(resultados.get(0).getStatus()).isEqualTo(VideoLoteResponse.Status.FALHA);
+        assertThat(resultados.get(0).getId()).isNull();
+        verify(entityManager, never()).clear();
+    }
+}
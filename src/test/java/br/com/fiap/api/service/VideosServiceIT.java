@@ -4,6 +4,7 @@ import br.com.fiap.api.exception.MensagemNotFoundException;
 import br.com.fiap.api.model.Videos;
 import br.com.fiap.api.repository.VideoRepository;
 import br.com.fiap.api.utils.VideoHelper;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +14,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.util.ArrayList;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,6 +32,12 @@ class VideosServiceIT {
     @Autowired
     private VideosService videoService;
 
+    @Autowired
+    private GosteiLoteGravador gosteiLoteGravador;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void devePermitirRegistrarVideo() {
         var video = VideoHelper.gerarVideo();
@@ -151,4 +160,23 @@ class VideosServiceIT {
         assertThat(mensagens).isEmpty();
     }
 
-}
\ No newline at end of file
+    @Test
+    void devePermitirSomarGosteiEmLote_EIndicarVideosInexistentes() {
+        var deltas = new ArrayList<Map.Entry<UUID, Long>>();
+        for (int i = 0; i < GosteiLoteGravador.TAMANHO_BATCH + 10; i++) {
+            deltas.add(Map.entry(VideoHelper.registrarVideo(videoRepository).getId(), 3L));
+        }
+        var inexistente = UUID.randomUUID();
+        deltas.add(Map.entry(inexistente, 1L));
+        entityManager.flush();
+        entityManager.clear();
+
+        var inexistentes = gosteiLoteGravador.somar(deltas);
+
+        assertThat(inexistentes).containsExactly(inexistente);
+        assertThat(videoRepository.findAllById(deltas.stream().map(Map.Entry::getKey).toList()))
+                .hasSize(GosteiLoteGravador.TAMANHO_BATCH + 10)
+                .allSatisfy(video -> assertThat(video.getGostei()).isEqualTo(3));
+    }
+
+}
@@ -1,41 +1,98 @@
 package br.com.fiap.api.service;
 
+import br.com.fiap.api.dto.VideoCursor;
+import br.com.fiap.api.dto.VideoEmAltaResponse;
+import br.com.fiap.api.dto.VideoListaResponse;
+import br.com.fiap.api.dto.VideoLoteResponse;
+import br.com.fiap.api.dto.VideoRequest;
+import br.com.fiap.api.dto.VideoSugestaoResponse;
 import br.com.fiap.api.exception.MensagemNotFoundException;
+import br.com.fiap.api.exception.VersaoConflitanteException;
 import br.com.fiap.api.model.Videos;
 import br.com.fiap.api.repository.VideoRepository;
+import br.com.fiap.api.search.AutocompletarTitulos;
+import br.com.fiap.api.search.IndicePesquisaVideos;
+import br.com.fiap.api.search.IndiceTemporalVideos;
+import br.com.fiap.api.search.VideosEmAlta;
 import br.com.fiap.api.utils.VideoHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 
 class VideosServiceTest {
 
-    private VideosService videoService;
+    private VideoServiceImpl videoService;
     @Mock
     private VideoRepository videoRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private VideoLoteImportador videoLoteImportador;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private GosteiLoteGravador gosteiLoteGravador;
+    private GosteiAcumulador gosteiAcumulador;
+    private CacheManager cacheManager;
+    private IndicePesquisaVideos indicePesquisaVideos;
+    private AutocompletarTitulos autocompletarTitulos;
+    private IndiceTemporalVideos indiceTemporalVideos;
+    private VideosEmAlta videosEmAlta;
     AutoCloseable openMocks;
 
     @BeforeEach
     void setUp() {
         openMocks = MockitoAnnotations.openMocks(this);
-        videoService = new VideoServiceImpl(videoRepository);
+        gosteiAcumulador = new GosteiAcumulador();
+        cacheManager = new ConcurrentMapCacheManager(VideoServiceImpl.CACHE_VIDEOS);
+        indicePesquisaVideos = new IndicePesquisaVideos();
+        autocompletarTitulos = new AutocompletarTitulos();
+        indiceTemporalVideos = new IndiceTemporalVideos(Duration.ofDays(7));
+        videosEmAlta = new VideosEmAlta(List.of(Duration.ofMinutes(5), Duration.ofHours(1)), 10);
+        videoService = new VideoServiceImpl(videoRepository, gosteiAcumulador, cacheManager,
+                entityManager, new ObjectMapper().findAndRegisterModules(), videoLoteImportador,
+                indicePesquisaVideos, autocompletarTitulos, indiceTemporalVideos, videosEmAlta, new TransactionTemplate(transactionManager),
+                gosteiLoteGravador);
     }
 
     @AfterEach
@@ -69,6 +126,28 @@ class VideosServiceTest {
         }
     }
 
+    @Nested
+    class RegistrarVideosEmLote {
+
+        @Test
+        void devePermitirRegistrarVideosEmLote() {
+            var videos = Arrays.asList(VideoHelper.gerarVideo(), VideoHelper.gerarVideo());
+            var resultados = Arrays.asList(
+                    VideoLoteResponse.builder().indice(0).id(UUID.randomUUID())
+                            .status(VideoLoteResponse.Status.CRIADO).erros(Collections.emptyList()).build(),
+                    VideoLoteResponse.builder().indice(1).id(UUID.randomUUID())
+                            .status(VideoLoteResponse.Status.CRIADO).erros(Collections.emptyList()).build());
+            when(videoLoteImportador.importar(videos))
+                    .thenReturn(resultados);
+
+            var resultadosObtidos = videoService.criarVideos(videos);
+
+            assertThat(resultadosObtidos).isEqualTo(resultados);
+            verify(videoLoteImportador, times(1)).importar(videos);
+            verify(videoRepository, never()).save(any(Videos.class));
+        }
+    }
+
     @Nested
     class BuscarVideos {
 
@@ -109,6 +188,288 @@ class VideosServiceTest {
         }
     }
 
+    @Nested
+    class BuscarVariosVideos {
+
+        @Test
+        void devePermitirBuscarVideos_NaOrdemPedida() {
+            var primeiro = VideoHelper.gerarVideo();
+            primeiro.setId(UUID.randomUUID());
+            var segundo = VideoHelper.gerarVideo();
+            segundo.setId(UUID.randomUUID());
+            var inexistente = UUID.randomUUID();
+            when(videoRepository.findAllById(any()))
+                    .thenReturn(List.of(primeiro, segundo));
+
+            var resultado = videoService.buscarVideos(List.of(segundo.getId(), inexistente, primeiro.getId()));
+
+            assertThat(resultado.getVideos())
+                    .extracting(Videos::getId)
+                    .containsExactly(segundo.getId(), primeiro.getId());
+            assertThat(resultado.getNaoEncontrados()).containsExactly(inexistente);
+            verify(videoRepository, times(1)).findAllById(any());
+        }
+
+        @Test
+        void deveBuscarVideosNoCache_QuandoJaBuscados() {
+            var id = UUID.randomUUID();
+            var video = VideoHelper.gerarVideo();
+            video.setId(id);
+            when(videoRepository.findById(any(UUID.class)))
+                    .thenReturn(Optional.of(video));
+            videoService.buscarVideo(id);
+
+            var resultado = videoService.buscarVideos(List.of(id, id));
+
+            assertThat(resultado.getVideos()).extracting(Videos::getId).containsExactly(id);
+            assertThat(resultado.getNaoEncontrados()).isEmpty();
+            verify(videoRepository, never()).findAllById(any());
+        }
+
+        @Test
+        void naoDeveGuardarNoCache_QuandoVideosLidosEmConjunto() {
+            var video = VideoHelper.gerarVideo();
+            video.setId(UUID.randomUUID());
+            when(videoRepository.findAllById(any()))
+                    .thenReturn(List.of(video));
+
+            videoService.buscarVideos(List.of(video.getId()));
+
+            assertThat(cacheManager.getCache(VideoServiceImpl.CACHE_VIDEOS).get(video.getId())).isNull();
+        }
+
+        @Test
+        void deveSomarGosteiPendente_QuandoBuscarVideos() {
+            var video = VideoHelper.gerarVideo();
+            video.setId(UUID.randomUUID());
+            video.setGostei(3);
+            when(videoRepository.findAllById(any()))
+                    .thenReturn(List.of(video));
+            gosteiAcumulador.incrementar(video.getId());
+
+            var resultado = videoService.buscarVideos(List.of(video.getId()));
+
+            assertThat(resultado.getVideos().get(0).getGostei()).isEqualTo(4);
+        }
+    }
+
+    @Nested
+    class PesquisarVideos {
+
+        @Test
+        void devePermitirPesquisarVideo_QuandoVideoCriado() {
+            var video = VideoHelper.gerarVideo();
+            when(videoRepository.save(any(Videos.class)))
+                    .thenAnswer(i -> i.getArgument(0));
+
+            var videoCriado = videoService.criarVideo(video);
+            var resultados = videoService.pesquisarVideos("xpto", 10);
+
+            assertThat(resultados).hasSize(1);
+            assertThat(resultados.get(0).getId()).isEqualTo(videoCriado.getId());
+        }
+
+        @Test
+        void deveRemoverVideoDaPesquisa_QuandoVideoApagado() {
+            var video = VideoHelper.gerarVideoCompleto();
+            indicePesquisaVideos.indexar(video);
+            when(videoRepository.apagarVideo(video.getId()))
+                    .thenReturn(1);
+
+            videoService.apagarVideo(video.getId());
+
+            assertThat(videoService.pesquisarVideos("xpto", 10)).isEmpty();
+        }
+
+        @Test
+        void devePermitirCarregarIndices_QuandoAplicacaoIniciar() {
+            when(videoRepository.exportarVideos())
+                    .thenReturn(Stream.of(VideoHelper.gerarVideoCompleto(), VideoHelper.gerarVideoCompleto()));
+
+            videoService.carregarIndices();
+
+            assertThat(indicePesquisaVideos.tamanho()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    class AutocompletarTitulo {
+
+        @Test
+        void devePermitirAutocompletarTitulo_QuandoVideoCriado() {
+            var video = VideoHelper.gerarVideo();
+            when(videoRepository.save(any(Videos.class)))
+                    .thenAnswer(i -> i.getArgument(0));
+
+            var videoCriado = videoService.criarVideo(video);
+            var sugestoes = videoService.autocompletarTitulo(video.getTitulo().substring(0, 2), 5);
+
+            assertThat(sugestoes).hasSize(1);
+            assertThat(sugestoes.get(0).getId()).isEqualTo(videoCriado.getId());
+        }
+
+        @Test
+        void deveRemoverSugestao_QuandoVideoApagado() {
+            var video = VideoHelper.gerarVideoCompleto();
+            autocompletarTitulos.adicionar(video.getId(), video.getTitulo(), video.getGostei());
+            when(videoRepository.apagarVideo(video.getId()))
+                    .thenReturn(1);
+
+            videoService.apagarVideo(video.getId());
+
+            assertThat(videoService.autocompletarTitulo(video.getTitulo(), 5)).isEmpty();
+        }
+
+        @Test
+        void deveAtualizarGosteiDaSugestao_QuandoGosteiDescarregado() {
+            var video = VideoHelper.gerarVideoCompleto();
+            autocompletarTitulos.adicionar(video.getId(), video.getTitulo(), video.getGostei());
+            gosteiAcumulador.incrementar(video.getId());
+            gosteiAcumulador.incrementar(video.getId());
+            when(gosteiLoteGravador.somar(List.of(Map.entry(video.getId(), 2L))))
+                    .thenReturn(Set.of());
+
+            videoService.descarregarGostei();
+
+            assertThat(videoService.autocompletarTitulo(video.getTitulo(), 5))
+                    .singleElement()
+                    .satisfies(sugestao -> assertThat(sugestao.getGostei()).isEqualTo(video.getGostei() + 2L));
+        }
+
+        @Test
+        void devePermitirCarregarSugestoes_QuandoAplicacaoIniciar() {
+            when(videoRepository.exportarVideos())
+                    .thenReturn(Stream.of(VideoHelper.gerarVideoCompleto(), VideoHelper.gerarVideoCompleto()));
+
+            videoService.carregarIndices();
+
+            assertThat(autocompletarTitulos.tamanho()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    class CacheDeVideos {
+
+        @Test
+        void deveBuscarVideoNoCache_QuandoBuscarVideoNovamente() {
+            var id = UUID.randomUUID();
+            var video = VideoHelper.gerarVideo();
+            video.setId(id);
+            when(videoRepository.findById(any(UUID.class)))
+                    .thenReturn(Optional.of(video));
+
+            var primeiraBusca = videoService.buscarVideo(id);
+            var segundaBusca = videoService.buscarVideo(id);
+
+            verify(videoRepository, times(1)).findById(id);
+            assertThat(segundaBusca).isEqualTo(primeiraBusca);
+        }
+
+        @Test
+        void deveBuscarVideoNoBancoUmaVez_QuandoBuscasSimultaneas() throws Exception {
+            var video = VideoHelper.gerarVideoCompleto();
+            var liberar = new CountDownLatch(1);
+            when(videoRepository.findById(video.getId()))
+                    .thenAnswer(i -> {
+                        liberar.await(5, TimeUnit.SECONDS);
+                        return Optional.of(video);
+                    });
+            var executor = Executors.newFixedThreadPool(4);
+            try {
+                var buscas = Stream.generate(() -> executor.submit(() -> videoService.buscarVideo(video.getId())))
+                        .limit(4)
+                        .toList();
+                verify(videoRepository, timeout(5_000)).findById(video.getId());
+                Thread.sleep(100);
+                liberar.countDown();
+
+                for (var busca : buscas) {
+                    assertThat(busca.get(5, TimeUnit.SECONDS).getId()).isEqualTo(video.getId());
+                }
+                verify(videoRepository, times(1)).findById(video.getId());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        void naoDeveGuardarVideoDesatualizado_QuandoDescarregarGosteiDuranteCarga() throws Exception {
+            var video = VideoHelper.gerarVideoCompleto();
+            var liberar = new CountDownLatch(1);
+            when(videoRepository.findById(video.getId()))
+                    .thenAnswer(i -> {
+                        liberar.await(5, TimeUnit.SECONDS);
+                        return Optional.of(video);
+                    });
+            when(gosteiLoteGravador.somar(anyList()))
+                    .thenReturn(Set.of());
+            gosteiAcumulador.incrementar(video.getId());
+            var executor = Executors.newFixedThreadPool(2);
+            try {
+                var busca = executor.submit(() -> videoService.buscarVideo(video.getId()));
+                verify(videoRepository, timeout(5_000)).findById(video.getId());
+                var descarga = executor.submit(() -> videoService.descarregarGostei());
+                verify(gosteiLoteGravador, timeout(5_000)).somar(List.of(Map.entry(video.getId(), 1L)));
+                Thread.sleep(100);
+                liberar.countDown();
+
+                busca.get(5, TimeUnit.SECONDS);
+                descarga.get(5, TimeUnit.SECONDS);
+                assertThat(cacheManager.getCache(VideoServiceImpl.CACHE_VIDEOS).get(video.getId())).isNull();
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        void deveInvalidarCache_QuandoAlterarVideo() {
+            var id = UUID.randomUUID();
+            var video = VideoHelper.gerarVideo();
+            video.setId(id);
+            when(videoRepository.findById(any(UUID.class)))
+                    .thenReturn(Optional.of(video));
+            when(videoRepository.alterarVideo(any(UUID.class), any(), any(), any(LocalDateTime.class)))
+                    .thenReturn(Optional.of(video.toBuilder().descricao("abcd").build()));
+
+            videoService.buscarVideo(id);
+            videoService.alterarVideo(id, video.toBuilder().descricao("abcd").build());
+
+            assertThat(cacheManager.getCache(VideoServiceImpl.CACHE_VIDEOS).get(id)).isNull();
+        }
+
+        @Test
+        void deveInvalidarCache_QuandoApagarVideo() {
+            var id = UUID.randomUUID();
+            var video = VideoHelper.gerarVideo();
+            video.setId(id);
+            when(videoRepository.findById(any(UUID.class)))
+                    .thenReturn(Optional.of(video));
+            when(videoRepository.apagarVideo(id))
+                    .thenReturn(1);
+
+            videoService.buscarVideo(id);
+            videoService.apagarVideo(id);
+
+            assertThat(cacheManager.getCache(VideoServiceImpl.CACHE_VIDEOS).get(id)).isNull();
+        }
+
+        @Test
+        void deveInvalidarCache_QuandoDescarregarGostei() {
+            var id = UUID.randomUUID();
+            var video = VideoHelper.gerarVideo();
+            video.setId(id);
+            when(videoRepository.findById(any(UUID.class)))
+                    .thenReturn(Optional.of(video));
+            when(gosteiLoteGravador.somar(anyList()))
+                    .thenReturn(Set.of());
+
+            videoService.incrementarGostei(id);
+            videoService.descarregarGostei();
+
+            assertThat(cacheManager.getCache(VideoServiceImpl.CACHE_VIDEOS).get(id)).isNull();
+        }
+    }
+
     @Nested
     class AlterarVideos {
 
@@ -117,14 +478,11 @@ class VideosServiceTest {
             var id = UUID.randomUUID();
             var mensagemAntiga = VideoHelper.gerarVideo();
             mensagemAntiga.setId(id);
-            var mensagemNova = mensagemAntiga;
+            var mensagemNova = mensagemAntiga.toBuilder().build();
             mensagemNova.setDescricao("abcd");
 
-            when(videoRepository.findById(any(UUID.class)))
-                    .thenReturn(Optional.of(mensagemAntiga));
-
-            when(videoRepository.save(any(Videos.class)))
-                    .thenAnswer(i -> i.getArgument(0));
+            when(videoRepository.alterarVideo(any(UUID.class), any(), any(), any(LocalDateTime.class)))
+                    .thenReturn(Optional.of(mensagemNova.toBuilder().versao(1L).build()));
 
             var mensagemObtida = videoService
                     .alterarVideo(id, mensagemNova);
@@ -138,7 +496,63 @@ class VideosServiceTest {
                     .isEqualTo(mensagemNova.getTitulo());
             assertThat(mensagemObtida.getDescricao())
                     .isEqualTo(mensagemNova.getDescricao());
-            verify(videoRepository, times(1)).save(any(Videos.class));
+            assertThat(mensagemObtida.getVersao()).isEqualTo(1L);
+            verify(videoRepository, times(1)).alterarVideo(eq(id), eq("abcd"),
+                    eq(mensagemNova.getUrl()), any(LocalDateTime.class));
+            verify(videoRepository, never()).save(any(Videos.class));
+            verify(videoRepository, never()).findById(any(UUID.class));
+        }
+
+        @Test
+        void devePermitirAlterarVideo_NaVersaoEsperada_ComUmUnicoComando() {
+            var video = VideoHelper.gerarVideoCompleto();
+            when(videoRepository.alterarVideo(any(UUID.class), any(), any(), any(LocalDateTime.class), anyLong()))
+                    .thenReturn(Optional.of(video.toBuilder().descricao("abcd").versao(3L).build()));
+
+            var videoAlterado = videoService.alterarVideo(video.getId(), video.toBuilder().descricao("abcd").build(), 2L);
+
+            assertThat(videoAlterado.getVersao()).isEqualTo(3L);
+            verify(videoRepository).alterarVideo(eq(video.getId()), eq("abcd"), any(), any(LocalDateTime.class), eq(2L));
+            verifyNoMoreInteractions(videoRepository);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarVideo_VersaoDesatualizada() {
+            var video = VideoHelper.gerarVideoCompleto();
+            when(videoRepository.existsById(video.getId()))
+                    .thenReturn(true);
+
+            assertThatThrownBy(() -> videoService.alterarVideo(video.getId(), video, 2L))
+                    .isInstanceOf(VersaoConflitanteException.class)
+                    .hasMessage("video alterado por outra requisição");
+            verify(videoRepository, never()).alterarVideo(any(UUID.class), any(), any(), any(LocalDateTime.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarVideoNaVersao_IdNaoExistente() {
+            var video = VideoHelper.gerarVideoCompleto();
+
+            assertThatThrownBy(() -> videoService.alterarVideo(video.getId(), video, 2L))
+                    .isInstanceOf(MensagemNotFoundException.class)
+                    .hasMessage("video não encontrado");
+            verify(videoRepository, times(1)).existsById(video.getId());
+        }
+
+        @Test
+        void deveIgnorarCache_QuandoAlterarVideo() {
+            var video = VideoHelper.gerarVideoCompleto();
+            video.setVersao(5L);
+            when(videoRepository.findById(video.getId()))
+                    .thenReturn(Optional.of(video));
+            when(videoRepository.alterarVideo(any(UUID.class), any(), any(), any(LocalDateTime.class)))
+                    .thenReturn(Optional.of(video.toBuilder().descricao("abcd").versao(8L).build()));
+            videoService.buscarVideo(video.getId());
+
+            var videoAlterado = videoService.alterarVideo(video.getId(), video.toBuilder().descricao("abcd").build());
+
+            assertThat(videoAlterado.getVersao()).isEqualTo(8L);
+            verify(videoRepository, never())
+                    .alterarVideo(any(UUID.class), any(), any(), any(LocalDateTime.class), anyLong());
         }
 
         @Test
@@ -149,13 +563,125 @@ class VideosServiceTest {
             var mensagemNova = mensagemAntiga.toBuilder().build();
             mensagemNova.setId(UUID.randomUUID());
 
+            assertThatThrownBy(
+                    () -> videoService.alterarVideo(id, mensagemNova))
+                    .isInstanceOf(MensagemNotFoundException.class)
+                    .hasMessage("video não apresenta o ID correto");
+            verify(videoRepository, never()).alterarVideo(any(UUID.class), any(), any(), any(LocalDateTime.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoAlterarVideo_IdNaoExistente() {
+            var id = UUID.randomUUID();
+            var mensagemNova = VideoHelper.gerarVideo();
+            mensagemNova.setId(id);
+            when(videoRepository.alterarVideo(any(UUID.class), any(), any(), any(LocalDateTime.class)))
+                    .thenReturn(Optional.empty());
+
             assertThatThrownBy(
                     () -> videoService.alterarVideo(id, mensagemNova))
                     .isInstanceOf(MensagemNotFoundException.class)
                     .hasMessage("video não encontrado");
+            verify(videoRepository, never()).findById(any(UUID.class));
+        }
+
+    }
+
+    @Nested
+    class CorrigirVideos {
+
+        @Test
+        void devePermitirCorrigirSomenteCamposInformados() {
+            var video = VideoHelper.gerarVideoCompleto();
+            var urlOriginal = video.getUrl();
+            when(videoRepository.findById(video.getId()))
+                    .thenReturn(Optional.of(video));
+
+            var videoCorrigido = videoService.corrigirVideo(video.getId(),
+                    VideoRequest.builder().descricao("abcd").build());
+
+            assertThat(videoCorrigido.getDescricao()).isEqualTo("abcd");
+            assertThat(videoCorrigido.getUrl()).isEqualTo(urlOriginal);
+            assertThat(video.getDescricao()).isEqualTo("abcd");
+            verify(entityManager, times(1)).flush();
             verify(videoRepository, never()).save(any(Videos.class));
         }
 
+        @Test
+        void naoDeveGravar_QuandoCorrecaoNaoMudaNada() {
+            var video = VideoHelper.gerarVideoCompleto();
+            var dataAlteracao = video.getDataAlteracao();
+            when(videoRepository.findById(video.getId()))
+                    .thenReturn(Optional.of(video));
+            var versao = videoService.versaoCatalogo();
+
+            videoService.corrigirVideo(video.getId(),
+                    VideoRequest.builder().descricao(video.getDescricao()).build());
+
+            assertThat(video.getDataAlteracao()).isEqualTo(dataAlteracao);
+            assertThat(videoService.versaoCatalogo()).isEqualTo(versao);
+            verify(entityManager, never()).flush();
+        }
+
+        @Test
+        void deveAtualizarSugestoes_QuandoCorrigirTitulo() {
+            var video = VideoHelper.gerarVideoCompleto();
+            autocompletarTitulos.adicionar(video.getId(), video.getTitulo(), video.getGostei());
+            when(videoRepository.findById(video.getId()))
+                    .thenReturn(Optional.of(video));
+
+            videoService.corrigirVideo(video.getId(), VideoRequest.builder().titulo("novo titulo").build());
+
+            assertThat(videoService.autocompletarTitulo("novo", 5))
+                    .extracting(VideoSugestaoResponse::getId)
+                    .containsExactly(video.getId());
+            assertThat(videoService.autocompletarTitulo(video.getTitulo(), 5)).isEmpty();
+        }
+
+        @Test
+        void naoDeveGuardarVideoAntigoNoCache_QuandoLidoAntesDoCommit() {
+            var video = VideoHelper.gerarVideoCompleto();
+            var gravado = video.toBuilder().build();
+            when(videoRepository.findById(video.getId()))
+                    .thenReturn(Optional.of(video), Optional.of(gravado));
+            // uma leitura concorrente que chega antes do commit ainda vê a linha antiga
+            doAnswer(i -> videoService.buscarVideo(video.getId()))
+                    .when(transactionManager).commit(any());
+            var versao = videoService.versaoCatalogo();
+
+            videoService.corrigirVideo(video.getId(), VideoRequest.builder().descricao("abcd").build());
+
+            verify(transactionManager, times(1)).commit(any());
+            assertThat(cacheManager.getCache(VideoServiceImpl.CACHE_VIDEOS).get(video.getId())).isNull();
+            assertThat(videoService.versaoCatalogo()).isEqualTo(versao + 1);
+        }
+
+        @Test
+        void naoDeveMudarCacheNemIndices_QuandoCommitFalhar() {
+            var video = VideoHelper.gerarVideoCompleto();
+            when(videoRepository.findById(video.getId()))
+                    .thenReturn(Optional.of(video));
+            doThrow(new CannotAcquireLockException("falha no commit"))
+                    .when(transactionManager).commit(any());
+            var versao = videoService.versaoCatalogo();
+
+            assertThatThrownBy(() -> videoService.corrigirVideo(video.getId(),
+                    VideoRequest.builder().titulo("novo titulo").build()))
+                    .isInstanceOf(CannotAcquireLockException.class);
+            assertThat(videoService.versaoCatalogo()).isEqualTo(versao);
+            assertThat(videoService.autocompletarTitulo("novo", 5)).isEmpty();
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoCorrigirVideo_IdNaoExistente() {
+            var id = UUID.randomUUID();
+            when(videoRepository.findById(id))
+                    .thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> videoService.corrigirVideo(id, VideoRequest.builder().url("x").build()))
+                    .isInstanceOf(MensagemNotFoundException.class)
+                    .hasMessage("video não encontrado");
+        }
     }
 
     @Nested
@@ -164,18 +690,25 @@ class VideosServiceTest {
         @Test
         void devePermitirApagarVideo() {
             var id = UUID.fromString("51fa607a-1e61-11ee-be56-0242ac120002");
-            var video = VideoHelper.gerarVideo();
-            video.setId(id);
-            when(videoRepository.findById(id))
-                    .thenReturn(Optional.of(video));
-            doNothing()
-                    .when(videoRepository).deleteById(id);
+            when(videoRepository.apagarVideo(id))
+                    .thenReturn(1);
 
             var resultado = videoService.apagarVideo(id);
 
             assertThat(resultado).isTrue();
-            verify(videoRepository, times(1)).findById(any(UUID.class));
-            verify(videoRepository, times(1)).delete(any(Videos.class));
+            verify(videoRepository, times(1)).apagarVideo(id);
+            verify(videoRepository, never()).findById(any(UUID.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoApagarVideo_IdNaoExistente() {
+            var id = UUID.randomUUID();
+            when(videoRepository.apagarVideo(id))
+                    .thenReturn(0);
+
+            assertThatThrownBy(() -> videoService.apagarVideo(id))
+                    .isInstanceOf(MensagemNotFoundException.class)
+                    .hasMessage("video não encontrado");
         }
 
     }
@@ -191,13 +724,110 @@ class VideosServiceTest {
             when(videoRepository.findById(any(UUID.class)))
                     .thenReturn(Optional.of(video));
 
-            when(videoRepository.save(any(Videos.class)))
-                    .thenAnswer(invocation -> invocation.getArgument(0));
-
             var videoRecebida = videoService.incrementarGostei(video.getId());
 
-            verify(videoRepository, times(1)).save(videoRecebida);
+            verify(videoRepository, never()).save(any(Videos.class));
+            verify(gosteiLoteGravador, never()).somar(anyList());
             assertThat(videoRecebida.getGostei()).isEqualTo(1);
+            assertThat(gosteiAcumulador.pendentes(video.getId())).isEqualTo(1);
+        }
+
+        @Test
+        void devePermitirDescarregarGostei() {
+            var video = VideoHelper.gerarVideo();
+            video.setId(UUID.randomUUID());
+            when(videoRepository.findById(any(UUID.class)))
+                    .thenReturn(Optional.of(video));
+            when(gosteiLoteGravador.somar(anyList()))
+                    .thenReturn(Set.of());
+
+            videoService.incrementarGostei(video.getId());
+            videoService.incrementarGostei(video.getId());
+            videoService.descarregarGostei();
+
+            verify(gosteiLoteGravador, times(1)).somar(List.of(Map.entry(video.getId(), 2L)));
+            assertThat(gosteiAcumulador.pendentes(video.getId())).isZero();
+        }
+
+        @Test
+        void deveGravarGosteiDeTodosOsVideosNumUnicoLote_QuandoDescarregarGostei() {
+            var primeiro = UUID.randomUUID();
+            var segundo = UUID.randomUUID();
+            gosteiAcumulador.incrementar(primeiro);
+            gosteiAcumulador.incrementar(segundo);
+            gosteiAcumulador.incrementar(segundo);
+
+            videoService.descarregarGostei();
+
+            verify(gosteiLoteGravador, times(1)).somar(argThat(lote -> lote.size() == 2
+                    && lote.containsAll(List.of(Map.entry(primeiro, 1L), Map.entry(segundo, 2L)))));
+            assertThat(gosteiAcumulador.pendentes(primeiro)).isZero();
+            assertThat(gosteiAcumulador.pendentes(segundo)).isZero();
+        }
+
+        @Test
+        void deveDescartarGostei_QuandoVideoApagadoAntesDeDescarregar() {
+            var video = VideoHelper.gerarVideoCompleto();
+            autocompletarTitulos.adicionar(video.getId(), video.getTitulo(), video.getGostei());
+            gosteiAcumulador.incrementar(video.getId());
+            when(gosteiLoteGravador.somar(anyList()))
+                    .thenReturn(Set.of(video.getId()));
+
+            videoService.descarregarGostei();
+
+            assertThat(gosteiAcumulador.tamanho()).isZero();
+            assertThat(videoService.autocompletarTitulo(video.getTitulo(), 5))
+                    .singleElement()
+                    .satisfies(sugestao -> assertThat(sugestao.getGostei()).isEqualTo(video.getGostei()));
+        }
+
+        @Test
+        void deveMudarVersaoCatalogo_QuandoIncrementarGostei_MasNaoAoDescarregar() {
+            var id = UUID.randomUUID();
+            var video = VideoHelper.gerarVideo();
+            video.setId(id);
+            when(videoRepository.findById(any(UUID.class)))
+                    .thenReturn(Optional.of(video));
+            when(gosteiLoteGravador.somar(anyList()))
+                    .thenReturn(Set.of());
+            var versaoInicial = videoService.versaoCatalogo();
+
+            videoService.incrementarGostei(id);
+            var versaoAposGostei = videoService.versaoCatalogo();
+            videoService.descarregarGostei();
+
+            assertThat(versaoAposGostei).isGreaterThan(versaoInicial);
+            assertThat(videoService.versaoCatalogo()).isEqualTo(versaoAposGostei);
+        }
+
+        @Test
+        void deveTentarDeNovo_QuandoDescarregarGostei_FalhaTransitoria() {
+            var id = UUID.randomUUID();
+            gosteiAcumulador.incrementar(id);
+            when(gosteiLoteGravador.somar(anyList()))
+                    .thenThrow(new CannotAcquireLockException("lock"))
+                    .thenReturn(Set.of());
+
+            videoService.descarregarGostei();
+
+            verify(gosteiLoteGravador, times(2)).somar(List.of(Map.entry(id, 1L)));
+            assertThat(gosteiAcumulador.pendentes(id)).isZero();
+        }
+
+        @Test
+        void deveManterGosteiPendente_QuandoDescarregarGostei_FalhaNoBanco() {
+            var video = VideoHelper.gerarVideo();
+            video.setId(UUID.randomUUID());
+            when(videoRepository.findById(any(UUID.class)))
+                    .thenReturn(Optional.of(video));
+            when(gosteiLoteGravador.somar(anyList()))
+                    .thenThrow(new IllegalStateException("banco indisponível"));
+
+            videoService.incrementarGostei(video.getId());
+            videoService.descarregarGostei();
+
+            assertThat(gosteiAcumulador.pendentes(video.getId())).isEqualTo(1);
+            assertThat(videoService.buscarVideo(video.getId()).getGostei()).isEqualTo(1);
         }
 
     }
@@ -208,8 +838,8 @@ class VideosServiceTest {
         @Test
         void devePermitirListarVideos() {
             Page<Videos> page = new PageImpl<>(Arrays.asList(
-                    VideoHelper.gerarVideo(),
-                    VideoHelper.gerarVideo()
+                    VideoHelper.gerarVideoCompleto(),
+                    VideoHelper.gerarVideoCompleto()
             ));
 
             when(videoRepository.listarVideos(any(Pageable.class)))
@@ -240,4 +870,185 @@ class VideosServiceTest {
             verify(videoRepository, times(1)).listarVideos(any(Pageable.class));
         }
     }
+
+    @Nested
+    class ListarResumoVideos {
+
+        @Test
+        void devePermitirListarResumoVideos_ComGosteiPendente() {
+            var video = VideoListaResponse.builder()
+                    .id(UUID.randomUUID())
+                    .titulo("joe")
+                    .gostei(2)
+                    .build();
+            when(videoRepository.listarResumoVideos(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(video)));
+            gosteiAcumulador.incrementar(video.getId());
+
+            var videos = videoService.listarResumoVideos(Pageable.unpaged());
+
+            assertThat(videos.getContent())
+                    .extracting(VideoListaResponse::getGostei)
+                    .containsExactly(3);
+            verify(videoRepository, times(1)).listarResumoVideos(any(Pageable.class));
+            verify(videoRepository, never()).listarVideos(any(Pageable.class));
+        }
+    }
+
+    @Nested
+    class ListarPublicados {
+
+        @Test
+        void deveListarPublicadosDaMemoria_QuandoJanelaDentroDoHorizonte() {
+            var video = VideoHelper.gerarVideoCompleto();
+            indiceTemporalVideos.adicionar(video);
+            gosteiAcumulador.incrementar(video.getId());
+            var agora = LocalDateTime.now();
+
+            var videos = videoService.listarPublicados(agora.minusDays(1), agora.plusMinutes(1), 10);
+
+            assertThat(videos)
+                    .extracting(VideoListaResponse::getId, VideoListaResponse::getGostei)
+                    .containsExactly(tuple(video.getId(), 1));
+            verify(videoRepository, never())
+                    .listarPublicados(any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
+        }
+
+        @Test
+        void deveListarPublicadosDoBanco_QuandoJanelaAntesDoHorizonte() {
+            var de = LocalDateTime.now().minusDays(30);
+            var ate = LocalDateTime.now();
+            when(videoRepository.listarPublicados(any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
+                    .thenReturn(List.of());
+
+            var videos = videoService.listarPublicados(de, ate, 10);
+
+            assertThat(videos).isEmpty();
+            verify(videoRepository, times(1)).listarPublicados(de, ate, PageRequest.of(0, 10));
+        }
+
+        @Test
+        void deveRemoverDosPublicados_QuandoVideoApagado() {
+            var video = VideoHelper.gerarVideoCompleto();
+            indiceTemporalVideos.adicionar(video);
+            when(videoRepository.apagarVideo(video.getId()))
+                    .thenReturn(1);
+
+            videoService.apagarVideo(video.getId());
+
+            assertThat(indiceTemporalVideos.tamanho()).isZero();
+        }
+    }
+
+    @Nested
+    class ListarEmAlta {
+
+        @Test
+        void deveListarEmAlta_PelosGosteiNaJanela_SemConsultarBanco() {
+            var popular = VideoHelper.gerarVideo();
+            popular.setId(UUID.randomUUID());
+            var outro = VideoHelper.gerarVideo();
+            outro.setId(UUID.randomUUID());
+            when(videoRepository.findById(popular.getId()))
+                    .thenReturn(Optional.of(popular));
+            when(videoRepository.findById(outro.getId()))
+                    .thenReturn(Optional.of(outro));
+            videoService.incrementarGostei(popular.getId());
+            videoService.incrementarGostei(popular.getId());
+            videoService.incrementarGostei(outro.getId());
+            videosEmAlta.atualizarRankings();
+            clearInvocations(videoRepository);
+
+            var videos = videoService.listarEmAlta(Duration.ofHours(1), 10);
+
+            assertThat(videos)
+                    .extracting(VideoEmAltaResponse::getId, VideoEmAltaResponse::getGostei)
+                    .containsExactly(tuple(popular.getId(), 2L), tuple(outro.getId(), 1L));
+            verifyNoInteractions(videoRepository);
+        }
+
+        @Test
+        void deveRemoverDosEmAlta_QuandoVideoApagado() {
+            var video = VideoHelper.gerarVideo();
+            video.setId(UUID.randomUUID());
+            when(videoRepository.findById(video.getId()))
+                    .thenReturn(Optional.of(video));
+            when(videoRepository.apagarVideo(video.getId()))
+                    .thenReturn(1);
+            videoService.incrementarGostei(video.getId());
+
+            videoService.apagarVideo(video.getId());
+            videosEmAlta.atualizarRankings();
+
+            assertThat(videosEmAlta.tamanho()).isZero();
+            assertThat(videoService.listarEmAlta(Duration.ofMinutes(5), 10)).isEmpty();
+        }
+    }
+
+    @Nested
+    class ExportarVideos {
+
+        @Test
+        void devePermitirExportarVideos() throws Exception {
+            var primeiro = VideoHelper.gerarVideoCompleto();
+            var segundo = VideoHelper.gerarVideoCompleto();
+            when(videoRepository.exportarVideos())
+                    .thenReturn(Stream.of(primeiro, segundo));
+            var saida = new ByteArrayOutputStream();
+
+            videoService.exportarVideos(saida);
+
+            var linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+            assertThat(linhas).hasSize(2);
+            assertThat(linhas[0]).contains(primeiro.getId().toString());
+            assertThat(linhas[1]).contains(segundo.getId().toString());
+            verify(videoRepository, times(1)).exportarVideos();
+        }
+
+        @Test
+        void devePermitirExportarVideos_QuandoNaoExisteRegistro() throws Exception {
+            when(videoRepository.exportarVideos())
+                    .thenReturn(Stream.empty());
+            var saida = new ByteArrayOutputStream();
+
+            videoService.exportarVideos(saida);
+
+            assertThat(saida.size()).isZero();
+        }
+    }
+
+    @Nested
+    class ListarVideosPorCursor {
+
+        @Test
+        void devePermitirListarVideosPorCursor_PrimeiraPagina() {
+            Slice<Videos> slice = new SliceImpl<>(Arrays.asList(
+                    VideoHelper.gerarVideoCompleto(),
+                    VideoHelper.gerarVideoCompleto()
+            ), PageRequest.of(0, 2), true);
+            when(videoRepository.listarVideosPorCursor(any(Pageable.class)))
+                    .thenReturn(slice);
+
+            var videos = videoService.listarVideo(null, 2);
+
+            assertThat(videos).hasSize(2);
+            assertThat(videos.hasNext()).isTrue();
+            verify(videoRepository, times(1)).listarVideosPorCursor(PageRequest.of(0, 2));
+            verify(videoRepository, never()).listarVideos(any(Pageable.class));
+        }
+
+        @Test
+        void devePermitirListarVideosPorCursor_AposUltimoVideo() {
+            var cursor = new VideoCursor(LocalDateTime.now(), UUID.randomUUID());
+            Slice<Videos> slice = new SliceImpl<>(Collections.emptyList());
+            when(videoRepository.listarVideosPorCursor(any(LocalDateTime.class), any(UUID.class), any(Pageable.class)))
+                    .thenReturn(slice);
+
+            var videos = videoService.listarVideo(cursor, 10);
+
+            assertThat(videos).isEmpty();
+            verify(videoRepository, times(1))
+                    .listarVideosPorCursor(cursor.getDataPublicacao(), cursor.getId(), PageRequest.of(0, 10));
+        }
+    }
 }
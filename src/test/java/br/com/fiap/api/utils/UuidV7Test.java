@@ -0,0 +1,46 @@
+package br.com.fiap.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    void deveGerarUuidVersao7() {
+        var uuid = UuidV7.gerar();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UUID.fromString(uuid.toString())).isEqualTo(uuid);
+    }
+
+    @Test
+    void deveGerarUuidComInstanteAtual() {
+        var antes = System.currentTimeMillis();
+
+        var uuid = UuidV7.gerar();
+
+        assertThat(UuidV7.epochMillis(uuid))
+                .isGreaterThanOrEqualTo(antes)
+                // a sequência esgotada em testes anteriores pode adiantar alguns milissegundos
+                .isLessThanOrEqualTo(System.currentTimeMillis() + 1_000);
+    }
+
+    @Test
+    void deveGerarUuidCrescente_QuandoGeradoNoMesmoMilissegundo() {
+        var instante = System.currentTimeMillis();
+        var uuids = new ArrayList<UUID>();
+
+        for (int i = 0; i < 10_000; i++) {
+            uuids.add(UuidV7.gerar(instante));
+        }
+
+        assertThat(uuids)
+                .doesNotHaveDuplicates()
+                .isSorted();
+    }
+}